@@ -12,7 +12,7 @@ CREATE TABLE IF NOT EXISTS users (
     username VARCHAR(50) NOT NULL UNIQUE COMMENT '用户名',
     password VARCHAR(100) NOT NULL COMMENT '密码',
     email VARCHAR(100) NOT NULL UNIQUE COMMENT '邮箱',
-    avatar_url VARCHAR(500) COMMENT '头像URL',
+    avatar_key VARCHAR(500) COMMENT '头像的MinIO对象名',
     role VARCHAR(20) NOT NULL DEFAULT 'USER' COMMENT '用户角色：USER/ADMIN',
     is_deleted TINYINT(1) NOT NULL DEFAULT 0 COMMENT '是否删除',
     create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
@@ -25,9 +25,9 @@ CREATE TABLE IF NOT EXISTS users (
 CREATE TABLE IF NOT EXISTS articles (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
     title VARCHAR(200) NOT NULL COMMENT '文章标题',
-    content_url VARCHAR(500) NOT NULL COMMENT '文章内容的MinIO存储路径',
+    content_key VARCHAR(500) NOT NULL COMMENT '文章内容的MinIO对象名',
     summary VARCHAR(500) COMMENT '文章摘要',
-    cover_url VARCHAR(500) COMMENT '封面图片的MinIO存储路径',
+    cover_key VARCHAR(500) COMMENT '封面图片的MinIO对象名',
     author_id BIGINT NOT NULL COMMENT '作者ID',
     category_id BIGINT COMMENT '分类ID',
     status VARCHAR(20) NOT NULL DEFAULT 'DRAFT' COMMENT '状态：DRAFT/PUBLISHED',
@@ -41,7 +41,10 @@ CREATE TABLE IF NOT EXISTS articles (
     INDEX idx_author (author_id),
     INDEX idx_category (category_id),
     INDEX idx_create_time (create_time),
-    INDEX idx_status (status)
+    INDEX idx_status (status),
+    INDEX idx_author_create_time (author_id, create_time),
+    INDEX idx_top_create_time (is_top, create_time),
+    INDEX idx_view_count (view_count)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='文章表';
 
 -- 标签表
@@ -61,6 +64,27 @@ CREATE TABLE IF NOT EXISTS article_tags (
     FOREIGN KEY (tag_id) REFERENCES tags(id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='文章标签关联表';
 
+-- 相关文章表（后台按标签重合度、分类和新近度预先计算每篇文章的前K篇相关文章）
+CREATE TABLE IF NOT EXISTS article_related (
+    article_id BIGINT NOT NULL COMMENT '文章ID',
+    related_id BIGINT NOT NULL COMMENT '相关文章ID',
+    score DOUBLE NOT NULL COMMENT '相关度分数',
+    PRIMARY KEY (article_id, related_id),
+    INDEX idx_article_score (article_id, score),
+    INDEX idx_related (related_id),
+    FOREIGN KEY (article_id) REFERENCES articles(id) ON DELETE CASCADE,
+    FOREIGN KEY (related_id) REFERENCES articles(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='相关文章表';
+
+-- 对象存储待办表（记录事务外上传、尚未被提交引用的对象，以及事务提交后要删除的对象）
+CREATE TABLE IF NOT EXISTS object_outbox (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    object_name VARCHAR(500) NOT NULL COMMENT 'MinIO对象名称',
+    action VARCHAR(20) NOT NULL COMMENT '类型：STAGED/DELETE',
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    INDEX idx_action_create_time (action, create_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='对象存储待办表';
+
 -- 评论表
 CREATE TABLE IF NOT EXISTS comments (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
@@ -0,0 +1,31 @@
+-- 文件字段由预签名URL改为MinIO对象名，URL在读取时按需签名
+-- 升级已有数据库时执行一次；@bucket须与配置中的minio.bucket-name一致
+USE blog;
+
+SET @bucket = 'blog';
+
+ALTER TABLE users
+    CHANGE avatar_url avatar_key VARCHAR(500) COMMENT '头像的MinIO对象名';
+
+ALTER TABLE articles
+    CHANGE content_url content_key VARCHAR(500) NOT NULL COMMENT '文章内容的MinIO对象名',
+    CHANGE cover_url cover_key VARCHAR(500) COMMENT '封面图片的MinIO对象名';
+
+-- {endpoint}/{bucket}/{objectName}?X-Amz-... 去掉查询参数、endpoint和桶名
+UPDATE users
+SET avatar_key = SUBSTRING(
+        SUBSTRING_INDEX(avatar_key, '?', 1),
+        LOCATE('/', SUBSTRING_INDEX(avatar_key, '?', 1), LOCATE('://', avatar_key) + 3) + LENGTH(@bucket) + 2)
+WHERE avatar_key LIKE '%://%';
+
+UPDATE articles
+SET content_key = SUBSTRING(
+        SUBSTRING_INDEX(content_key, '?', 1),
+        LOCATE('/', SUBSTRING_INDEX(content_key, '?', 1), LOCATE('://', content_key) + 3) + LENGTH(@bucket) + 2)
+WHERE content_key LIKE '%://%';
+
+UPDATE articles
+SET cover_key = SUBSTRING(
+        SUBSTRING_INDEX(cover_key, '?', 1),
+        LOCATE('/', SUBSTRING_INDEX(cover_key, '?', 1), LOCATE('://', cover_key) + 3) + LENGTH(@bucket) + 2)
+WHERE cover_key LIKE '%://%';
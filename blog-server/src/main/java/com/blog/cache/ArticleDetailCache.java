@@ -0,0 +1,245 @@
+package com.blog.cache;
+
+import com.blog.common.util.TransactionUtils;
+import com.blog.config.ArticleCacheConfig;
+import com.blog.dto.response.ArticleDetailResponse;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 文章详情二级缓存
+ * L1为进程内缓存（按容量和过期时间淘汰），L2为Redis；
+ * 文章变更时删除L2并通过Redis发布订阅通知所有节点清除各自的L1
+ */
+@Slf4j
+@Component
+public class ArticleDetailCache implements MessageListener {
+
+    private static final String KEY_PREFIX = "article:detail:";
+    private static final String INVALIDATE_CHANNEL = "article:detail:invalidate";
+    private static final String ALL = "*";
+    private static final int CLEAR_BATCH_SIZE = 500;
+
+    /** 正文对象名不返回给客户端，但需随详情写入L2；Lombok会把@JsonIgnore复制到setter，需一并覆盖 */
+    private abstract static class CacheMixIn {
+        @JsonIgnore(false)
+        private String contentKey;
+
+        @JsonIgnore(false)
+        abstract void setContentKey(String contentKey);
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final ArticleCacheConfig cacheConfig;
+    private final Cache<Long, ArticleDetailResponse> localCache;
+
+    public ArticleDetailCache(StringRedisTemplate stringRedisTemplate,
+                              RedisMessageListenerContainer listenerContainer,
+                              ObjectMapper objectMapper,
+                              ArticleCacheConfig cacheConfig) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper.copy()
+                .addMixIn(ArticleDetailResponse.class, CacheMixIn.class);
+        this.cacheConfig = cacheConfig;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(cacheConfig.getLocalMaxSize())
+                .expireAfterWrite(cacheConfig.getLocalTtlSeconds(), TimeUnit.SECONDS)
+                .build();
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    /**
+     * 加载结果不完整（部分依赖失败）时由loader抛出，结果照常返回但不写入缓存
+     */
+    public static class PartialResultException extends RuntimeException {
+        private final ArticleDetailResponse response;
+
+        public PartialResultException(ArticleDetailResponse response) {
+            super(null, null, false, false);
+            this.response = response;
+        }
+    }
+
+    /**
+     * 获取文章详情，依次查询L1、L2，均未命中时调用loader加载并回填
+     * 同一节点上对同一文章的并发加载只会执行一次
+     * @param id 文章ID
+     * @param loader 数据库加载函数
+     * @return 文章详情
+     */
+    public ArticleDetailResponse get(Long id, Function<Long, ArticleDetailResponse> loader) {
+        try {
+            return localCache.get(id, key -> {
+                ArticleDetailResponse cached = getFromRedis(key);
+                if (cached != null) {
+                    return cached;
+                }
+                ArticleDetailResponse loaded = loader.apply(key);
+                putToRedis(key, loaded);
+                return loaded;
+            });
+        } catch (PartialResultException e) {
+            return e.response;
+        }
+    }
+
+    /**
+     * 只从缓存获取文章详情，不访问数据库
+     * @param id 文章ID
+     * @return 文章详情，L1和L2均未命中时返回null
+     */
+    public ArticleDetailResponse peek(Long id) {
+        ArticleDetailResponse cached = localCache.getIfPresent(id);
+        if (cached == null) {
+            cached = getFromRedis(id);
+            if (cached != null) {
+                localCache.put(id, cached);
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * 使文章详情缓存失效
+     * 处于事务中时延迟到事务提交后执行，避免并发读取把旧数据重新写回缓存
+     * @param id 文章ID
+     */
+    public void evict(Long id) {
+        evictAll(Collections.singletonList(id));
+    }
+
+    /**
+     * 批量使文章详情缓存失效，只发送一条失效广播
+     * @param ids 文章ID列表
+     */
+    public void evictAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> doEvict(ids));
+    }
+
+    /**
+     * 清除所有文章详情缓存，用于分类、作者、标签改名或删除，事务提交后执行
+     */
+    public void clear() {
+        TransactionUtils.afterCommit(this::doClear);
+    }
+
+    /**
+     * 将已刷写的浏览量计入本节点缓存的详情，不清除缓存也不广播
+     * @param deltas 文章ID -> 新增浏览量
+     */
+    public void addViewCounts(Map<Long, Long> deltas) {
+        deltas.forEach((id, delta) -> localCache.asMap().computeIfPresent(id, (key, detail) -> detail.toBuilder()
+                .viewCount((detail.getViewCount() != null ? detail.getViewCount() : 0) + delta.intValue())
+                .build()));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (ALL.equals(body)) {
+            localCache.invalidateAll();
+            return;
+        }
+        try {
+            for (String id : body.split(",")) {
+                localCache.invalidate(Long.valueOf(id));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Invalid article cache invalidation message: {}", message);
+        }
+    }
+
+    private void doEvict(Collection<Long> ids) {
+        localCache.invalidateAll(ids);
+        try {
+            stringRedisTemplate.delete(ids.stream()
+                    .map(id -> KEY_PREFIX + id)
+                    .collect(Collectors.toList()));
+            stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL, ids.stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(",")));
+        } catch (Exception e) {
+            log.warn("Failed to evict articles {} from redis cache: {}", ids, e.getMessage());
+        }
+    }
+
+    private void doClear() {
+        localCache.invalidateAll();
+        // 改名不频繁，逐批扫描删除，不阻塞Redis
+        try (Cursor<String> keys = stringRedisTemplate.scan(ScanOptions.scanOptions()
+                .match(KEY_PREFIX + "*")
+                .count(CLEAR_BATCH_SIZE)
+                .build())) {
+            List<String> batch = new ArrayList<>(CLEAR_BATCH_SIZE);
+            while (keys.hasNext()) {
+                batch.add(keys.next());
+                if (batch.size() == CLEAR_BATCH_SIZE) {
+                    stringRedisTemplate.delete(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                stringRedisTemplate.delete(batch);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to clear article details from redis cache: {}", e.getMessage());
+        }
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL, ALL);
+        } catch (Exception e) {
+            log.warn("Failed to broadcast article detail cache clear: {}", e.getMessage());
+        }
+    }
+
+    private ArticleDetailResponse getFromRedis(Long id) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(KEY_PREFIX + id);
+            return json != null ? objectMapper.readValue(json, ArticleDetailResponse.class) : null;
+        } catch (Exception e) {
+            log.warn("Failed to read article {} from redis cache: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    private void putToRedis(Long id, ArticleDetailResponse response) {
+        try {
+            stringRedisTemplate.opsForValue().set(KEY_PREFIX + id,
+                    objectMapper.writeValueAsString(response),
+                    cacheConfig.getRedisTtlMinutes(), TimeUnit.MINUTES);
+        } catch (Exception e) {
+            log.warn("Failed to write article {} to redis cache: {}", id, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.blog.cache;
+
+import com.blog.common.response.JsonFragment;
+import com.blog.common.util.TransactionUtils;
+import com.blog.config.ArticleCacheConfig;
+import com.blog.dto.response.ArticleDetailResponse;
+import com.blog.dto.response.ArticleSummaryJson;
+import com.blog.model.Article;
+import com.blog.service.FileService;
+import com.blog.storage.ImageVariant;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 文章摘要JSON片段缓存
+ * 按文章ID缓存列表项除浏览量外的预编码UTF-8 JSON，以update_time作为版本，文章更新后自动失效；
+ * 分类、作者、标签改名等不改变文章update_time的变更需要显式清除
+ */
+@Slf4j
+@Component
+public class ArticleJsonCache implements MessageListener {
+
+    private static final String INVALIDATE_CHANNEL = "article:json:invalidate";
+    private static final String ALL = "*";
+
+    /** 浏览量变化频繁、封面URL会过期，不放入片段，由ArticleSummaryJson单独写出；目录仅随渲染后的详情返回 */
+    @JsonIgnoreProperties({"viewCount", "coverUrl", "coverThumbnailUrl", "coverPlaceholderUrl", "toc"})
+    private abstract static class SummaryMixIn {
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final LocalDateTime updateTime;
+        private final JsonFragment fragment;
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final FileService fileService;
+    private final ObjectWriter summaryWriter;
+    private final Cache<Long, Entry> fragments;
+
+    public ArticleJsonCache(StringRedisTemplate stringRedisTemplate,
+                            RedisMessageListenerContainer listenerContainer,
+                            FileService fileService,
+                            ObjectMapper objectMapper,
+                            ArticleCacheConfig cacheConfig) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.fileService = fileService;
+        this.summaryWriter = objectMapper.copy()
+                .addMixIn(ArticleDetailResponse.class, SummaryMixIn.class)
+                .writerFor(ArticleDetailResponse.class);
+        this.fragments = Caffeine.newBuilder()
+                .maximumSize(cacheConfig.getFragmentMaxSize())
+                .build();
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    /**
+     * 获取文章摘要，片段版本与文章update_time一致时才命中
+     * @param article 文章
+     * @return 文章摘要，未命中时返回null
+     */
+    public ArticleSummaryJson get(Article article) {
+        Entry entry = fragments.getIfPresent(article.getId());
+        if (entry == null || !Objects.equals(entry.updateTime, article.getUpdateTime())) {
+            return null;
+        }
+        return toSummary(article, entry.fragment);
+    }
+
+    /**
+     * 编码文章摘要并放入缓存
+     * @param article 文章
+     * @param summary 组装好的摘要
+     * @return 文章摘要
+     */
+    public ArticleSummaryJson put(Article article, ArticleDetailResponse summary) {
+        byte[] json;
+        try {
+            json = summaryWriter.writeValueAsBytes(summary);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode article summary " + article.getId(), e);
+        }
+        // 去掉首尾的花括号，换成前导逗号，拼接在浏览量之后
+        json[0] = ',';
+        JsonFragment fragment = new JsonFragment(Arrays.copyOf(json, json.length - 1));
+        fragments.put(article.getId(), new Entry(article.getUpdateTime(), fragment));
+        return toSummary(article, fragment);
+    }
+
+    private ArticleSummaryJson toSummary(Article article, JsonFragment fragment) {
+        String coverKey = article.getCoverKey();
+        return new ArticleSummaryJson(article.getId(), article.getViewCount(),
+                fileService.getUrl(coverKey),
+                fileService.getImageUrl(coverKey, ImageVariant.SMALL),
+                fileService.getImageUrl(coverKey, ImageVariant.PLACEHOLDER),
+                fragment);
+    }
+
+    /**
+     * 清除文章的片段，事务提交后执行
+     * update_time精度为秒，同一秒内的多次更新不能只靠版本区分
+     * @param id 文章ID
+     */
+    public void evict(Long id) {
+        TransactionUtils.afterCommit(() -> broadcast(String.valueOf(id)));
+    }
+
+    /**
+     * 清除所有片段，用于分类、作者、标签改名，事务提交后执行
+     */
+    public void evictAll() {
+        TransactionUtils.afterCommit(() -> broadcast(ALL));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        invalidateLocal(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private void broadcast(String target) {
+        invalidateLocal(target);
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL, target);
+        } catch (Exception e) {
+            log.warn("Failed to broadcast article json invalidation: {}", e.getMessage());
+        }
+    }
+
+    private void invalidateLocal(String target) {
+        if (ALL.equals(target)) {
+            fragments.invalidateAll();
+            return;
+        }
+        try {
+            fragments.invalidate(Long.valueOf(target));
+        } catch (NumberFormatException e) {
+            log.warn("Invalid article json invalidation message: {}", target);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.blog.cache;
+
+import com.blog.common.util.HashUtils;
+import com.blog.config.ContentCacheConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 文章内容本地磁盘缓存
+ * MinIO中的文章内容以唯一对象名写入后不再修改，可安全地缓存在本地磁盘；
+ * 按总容量限制，超出时按LRU淘汰
+ */
+@Slf4j
+@Component
+public class ContentDiskCache {
+
+    private final ContentCacheConfig cacheConfig;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter evictionCounter;
+
+    /** 缓存文件名 -> 文件大小，按访问顺序排列 */
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+    private Path cacheDir;
+
+    public ContentDiskCache(ContentCacheConfig cacheConfig, MeterRegistry meterRegistry) {
+        this.cacheConfig = cacheConfig;
+        this.hitCounter = meterRegistry.counter("blog.content.cache", "result", "hit");
+        this.missCounter = meterRegistry.counter("blog.content.cache", "result", "miss");
+        this.evictionCounter = meterRegistry.counter("blog.content.cache.evictions");
+        Gauge.builder("blog.content.cache.size", this, ContentDiskCache::getTotalBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!cacheConfig.isEnabled()) {
+            return;
+        }
+        try {
+            cacheDir = Files.createDirectories(Paths.get(cacheConfig.getDir()));
+            loadIndex();
+            log.info("Content disk cache initialized at {} with {} entries, {} bytes",
+                    cacheDir.toAbsolutePath(), index.size(), totalBytes);
+        } catch (IOException e) {
+            log.error("Error initializing content disk cache, caching disabled", e);
+            cacheDir = null;
+        }
+    }
+
+    /**
+     * 读取缓存内容
+     * @param objectName 对象名称
+     * @return 内容字节，未命中时返回null
+     */
+    public byte[] get(String objectName) {
+        Path path = resolve(objectName);
+        if (path == null) {
+            return null;
+        }
+        synchronized (this) {
+            if (index.get(path.getFileName().toString()) == null) {
+                missCounter.increment();
+                return null;
+            }
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                // 读满为止
+            }
+            hitCounter.increment();
+            return buffer.array();
+        } catch (IOException e) {
+            // 文件可能刚被淘汰，按未命中处理
+            synchronized (this) {
+                remove(path.getFileName().toString());
+            }
+            missCounter.increment();
+            return null;
+        }
+    }
+
+    /**
+     * 打开缓存文件用于流式读取，读取期间文件被淘汰时已打开的通道仍然有效
+     * @param objectName 对象名称
+     * @return 文件通道，未命中时返回null
+     */
+    public FileChannel open(String objectName) {
+        Path path = resolve(objectName);
+        if (path == null) {
+            return null;
+        }
+        synchronized (this) {
+            if (index.get(path.getFileName().toString()) == null) {
+                missCounter.increment();
+                return null;
+            }
+        }
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            hitCounter.increment();
+            return channel;
+        } catch (IOException e) {
+            // 文件可能刚被淘汰，按未命中处理
+            synchronized (this) {
+                remove(path.getFileName().toString());
+            }
+            missCounter.increment();
+            return null;
+        }
+    }
+
+    /**
+     * 写入缓存
+     * @param objectName 对象名称
+     * @param content 内容字节
+     */
+    public void put(String objectName, byte[] content) {
+        Path path = resolve(objectName);
+        long maxBytes = cacheConfig.getMaxSizeMb() * 1024 * 1024;
+        if (path == null || content.length > maxBytes) {
+            return;
+        }
+        String fileName = path.getFileName().toString();
+        Path tmp = cacheDir.resolve(fileName + "." + UUID.randomUUID() + ".tmp");
+        try {
+            // 先写临时文件再原子替换，避免读到写了一半的文件
+            Files.write(tmp, content);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write content cache for {}: {}", objectName, e.getMessage());
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+                // 忽略
+            }
+            return;
+        }
+        synchronized (this) {
+            Long previous = index.put(fileName, (long) content.length);
+            totalBytes += content.length - (previous != null ? previous : 0L);
+            evictIfNecessary(maxBytes);
+        }
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    private Path resolve(String objectName) {
+        if (cacheDir == null || objectName == null) {
+            return null;
+        }
+        return cacheDir.resolve(hash(objectName));
+    }
+
+    private void evictIfNecessary(long maxBytes) {
+        Iterator<Map.Entry<String, Long>> iterator = index.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            totalBytes -= eldest.getValue();
+            deleteQuietly(cacheDir.resolve(eldest.getKey()));
+            evictionCounter.increment();
+        }
+    }
+
+    private void remove(String fileName) {
+        Long size = index.remove(fileName);
+        if (size != null) {
+            totalBytes -= size;
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(cacheDir)) {
+            files = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        // 残留的临时文件直接删除，其余按最后修改时间恢复LRU顺序
+        files.stream()
+                .filter(file -> file.getFileName().toString().endsWith(".tmp"))
+                .forEach(this::deleteQuietly);
+        files.stream()
+                .filter(file -> !file.getFileName().toString().endsWith(".tmp"))
+                .sorted(Comparator.comparingLong(file -> file.toFile().lastModified()))
+                .forEach(file -> {
+                    long size = file.toFile().length();
+                    index.put(file.getFileName().toString(), size);
+                    totalBytes += size;
+                });
+        evictIfNecessary(cacheConfig.getMaxSizeMb() * 1024 * 1024);
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete content cache file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static String hash(String objectName) {
+        return HashUtils.sha256Hex(objectName.getBytes(StandardCharsets.UTF_8));
+    }
+}
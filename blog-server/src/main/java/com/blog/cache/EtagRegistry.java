@@ -0,0 +1,172 @@
+package com.blog.cache;
+
+import com.blog.common.util.TransactionUtils;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP条件请求的ETag版本
+ * 集合类资源按命名空间维护版本号，数据变更后推进；文章详情的ETag由update_time和内容摘要生成。
+ * 版本号为毫秒时间戳（同一毫秒内多次变更时加一），同时作为Last-Modified。
+ * 版本保存在Redis中，处理条件请求时无需访问数据库和MinIO
+ */
+@Slf4j
+@Component
+public class EtagRegistry {
+
+    /** 文章列表，文章变更后推进；浏览量刷写不推进，列表中的浏览量在重新验证失败前可能滞后 */
+    public static final String ARTICLE_LIST = "article:list";
+    /** 文章中引用的分类名、标签名、作者名，改名后递增 */
+    public static final String ARTICLE_LABELS = "article:labels";
+    public static final String CATEGORY = "category";
+    public static final String TAG = "tag";
+    public static final String COMMENT = "comment";
+
+    private static final String VERSION_KEY_PREFIX = "etag:version:";
+    private static final String ARTICLE_KEY_PREFIX = "etag:article:";
+    private static final long ARTICLE_TTL_HOURS = 24;
+
+    /**
+     * 将版本推进到当前时间，当前版本不小于当前时间时加一，保证版本单调递增
+     * KEYS[1] 版本键, ARGV[1] 当前毫秒时间戳
+     */
+    private static final RedisScript<Long> ADVANCE_SCRIPT = new DefaultRedisScript<>(
+            "local next = math.max(tonumber(redis.call('GET', KEYS[1]) or '0') + 1, tonumber(ARGV[1]))\n" +
+            "redis.call('SET', KEYS[1], string.format('%.0f', next))\n" +
+            "return next", Long.class);
+
+    /**
+     * 条件请求的校验器
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Validators {
+        /** 强ETag，带引号 */
+        private final String etag;
+        /** 最后修改时间（毫秒） */
+        private final long lastModified;
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public EtagRegistry(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * 计算资源的ETag和最后修改时间
+     * @param namespaces 资源依赖的命名空间
+     * @param articleId 文章详情的文章ID，集合资源传null
+     * @return 校验器，版本不可用时返回null
+     */
+    public Validators getValidators(String[] namespaces, Long articleId) {
+        List<String> keys = new ArrayList<>(namespaces.length + 1);
+        for (String namespace : namespaces) {
+            keys.add(VERSION_KEY_PREFIX + namespace);
+        }
+        if (articleId != null) {
+            keys.add(ARTICLE_KEY_PREFIX + articleId);
+        }
+        try {
+            List<String> values = stringRedisTemplate.opsForValue().multiGet(keys);
+            if (values == null) {
+                return null;
+            }
+            StringBuilder etag = new StringBuilder("\"");
+            long lastModified = 0;
+            for (int i = 0; i < keys.size(); i++) {
+                String value = values.get(i);
+                if (value == null) {
+                    if (i >= namespaces.length) {
+                        // 文章详情尚未加载过，本次不做条件判断
+                        return null;
+                    }
+                    value = initVersion(keys.get(i));
+                }
+                etag.append(i > 0 ? "-" : "").append(value);
+                lastModified = Math.max(lastModified, i < namespaces.length
+                        ? Long.parseLong(value)
+                        : Long.parseLong(value.substring(0, value.indexOf('.')), 36));
+            }
+            return new Validators(etag.append('"').toString(), lastModified);
+        } catch (Exception e) {
+            log.warn("Failed to read etag versions {}: {}", keys, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 记录文章详情的版本，加载详情时调用
+     * @param id 文章ID
+     * @param updateTime 文章更新时间
+     * @param content 文章内容
+     */
+    public void putArticle(Long id, LocalDateTime updateTime, String content) {
+        long updated = updateTime != null ? updateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+        String hash = DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8));
+        try {
+            stringRedisTemplate.opsForValue().set(ARTICLE_KEY_PREFIX + id,
+                    Long.toString(updated, 36) + "." + hash, ARTICLE_TTL_HOURS, TimeUnit.HOURS);
+        } catch (Exception e) {
+            log.warn("Failed to write etag for article {}: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * 文章变更后清除其详情版本并递增列表版本，事务提交后执行
+     * @param id 文章ID
+     */
+    public void evictArticle(Long id) {
+        TransactionUtils.afterCommit(() -> {
+            try {
+                stringRedisTemplate.delete(ARTICLE_KEY_PREFIX + id);
+                advance(VERSION_KEY_PREFIX + ARTICLE_LIST);
+            } catch (Exception e) {
+                log.warn("Failed to evict etag for article {}: {}", id, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 推进命名空间版本，事务提交后执行
+     * @param namespaces 命名空间
+     */
+    public void bump(String... namespaces) {
+        TransactionUtils.afterCommit(() -> {
+            for (String namespace : namespaces) {
+                try {
+                    advance(VERSION_KEY_PREFIX + namespace);
+                } catch (Exception e) {
+                    log.warn("Failed to bump etag version {}: {}", namespace, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void advance(String key) {
+        stringRedisTemplate.execute(ADVANCE_SCRIPT, Collections.singletonList(key),
+                String.valueOf(System.currentTimeMillis()));
+    }
+
+    /**
+     * 版本不存在时以当前时间初始化，Redis数据丢失后不会与之前发出的ETag重复
+     */
+    private String initVersion(String key) {
+        stringRedisTemplate.opsForValue().setIfAbsent(key, String.valueOf(System.currentTimeMillis()));
+        return stringRedisTemplate.opsForValue().get(key);
+    }
+}
@@ -0,0 +1,234 @@
+package com.blog.cache;
+
+import com.blog.common.util.TransactionUtils;
+import com.blog.config.HotArticleConfig;
+import com.blog.model.Article;
+import com.blog.repository.ArticleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 热门文章排行
+ * 基于Redis有序集合维护全部时间榜（分数为浏览量）和趋势榜（分数按半衰期定期衰减），
+ * 由浏览量刷写和文章状态变更增量更新；各节点定期拉取前K名到本地，读取时无需访问数据库
+ */
+@Slf4j
+@Component
+public class HotArticleRanking {
+
+    public enum Board {
+        ALL_TIME("article:hot:all"),
+        TRENDING("article:hot:trending");
+
+        private final String key;
+
+        Board(String key) {
+            this.key = key;
+        }
+    }
+
+    private static final String DECAY_LOCK_KEY = "article:hot:decay:lock";
+    private static final String DECAY_LAST_KEY = "article:hot:decay:last";
+    private static final String SEED_LOCK_KEY = "article:hot:seed:lock";
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    /**
+     * 仅对已在全部时间榜中的文章（即已发布文章）累加分数
+     * KEYS[1] 全部时间榜, KEYS[2] 趋势榜, ARGV 为 文章ID,增量 交替排列
+     */
+    private static final RedisScript<Long> RECORD_VIEWS_SCRIPT = new DefaultRedisScript<>(
+            "for i = 1, #ARGV, 2 do\n" +
+            "  if redis.call('ZSCORE', KEYS[1], ARGV[i]) then\n" +
+            "    redis.call('ZINCRBY', KEYS[1], ARGV[i + 1], ARGV[i])\n" +
+            "    redis.call('ZINCRBY', KEYS[2], ARGV[i + 1], ARGV[i])\n" +
+            "  end\n" +
+            "end\n" +
+            "return 0", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ArticleRepository articleRepository;
+    private final HotArticleConfig hotArticleConfig;
+    private final RedisLock redisLock;
+
+    /** 各榜单前K名的本地快照 */
+    private final Map<Board, List<Long>> snapshots = new ConcurrentHashMap<>();
+
+    public HotArticleRanking(StringRedisTemplate stringRedisTemplate,
+                             ArticleRepository articleRepository,
+                             HotArticleConfig hotArticleConfig,
+                             RedisLock redisLock) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.articleRepository = articleRepository;
+        this.hotArticleConfig = hotArticleConfig;
+        this.redisLock = redisLock;
+    }
+
+    /**
+     * 获取榜单前若干名文章ID
+     * @param board 榜单
+     * @param limit 获取数量
+     * @return 文章ID列表，排行不可用时返回null
+     */
+    public List<Long> getTopIds(Board board, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<Long> snapshot = snapshots.get(board);
+        if (snapshot != null && limit <= hotArticleConfig.getLocalTopK()) {
+            return snapshot.subList(0, Math.min(limit, snapshot.size()));
+        }
+        try {
+            return readTop(board, limit);
+        } catch (Exception e) {
+            log.warn("Failed to read hot article ranking from redis: {}", e.getMessage());
+            return snapshot;
+        }
+    }
+
+    /**
+     * 累加文章浏览量到排行
+     * @param deltas 文章ID -> 浏览量增量
+     */
+    public void recordViews(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<String> args = new ArrayList<>(deltas.size() * 2);
+        deltas.forEach((id, delta) -> {
+            args.add(String.valueOf(id));
+            args.add(String.valueOf(delta));
+        });
+        try {
+            stringRedisTemplate.execute(RECORD_VIEWS_SCRIPT,
+                    Arrays.asList(Board.ALL_TIME.key, Board.TRENDING.key),
+                    args.toArray());
+        } catch (Exception e) {
+            log.warn("Failed to record views to hot article ranking: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 文章发布后加入排行，事务提交后执行
+     * @param id 文章ID
+     * @param viewCount 当前浏览量
+     */
+    public void onPublished(Long id, long viewCount) {
+        TransactionUtils.afterCommit(() -> {
+            try {
+                stringRedisTemplate.opsForZSet().add(Board.ALL_TIME.key, String.valueOf(id), viewCount);
+            } catch (Exception e) {
+                log.warn("Failed to add article {} to hot article ranking: {}", id, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 文章下线或删除后移出排行，事务提交后执行
+     * @param id 文章ID
+     */
+    public void remove(Long id) {
+        TransactionUtils.afterCommit(() -> {
+            try {
+                for (Board board : Board.values()) {
+                    stringRedisTemplate.opsForZSet().remove(board.key, String.valueOf(id));
+                }
+            } catch (Exception e) {
+                log.warn("Failed to remove article {} from hot article ranking: {}", id, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 定期拉取各榜单前K名到本地，排行数据丢失时从数据库重建
+     */
+    @Scheduled(fixedDelayString = "#{@hotArticleConfig.refreshIntervalMs}")
+    public void refresh() {
+        try {
+            if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(Board.ALL_TIME.key))) {
+                seed();
+            }
+            for (Board board : Board.values()) {
+                snapshots.put(board, Collections.unmodifiableList(readTop(board, hotArticleConfig.getLocalTopK())));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to refresh hot article ranking, keeping last snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 按半衰期衰减趋势榜分数
+     * 记录上次衰减时间，距上次不足一个周期时跳过，衰减系数按实际间隔计算；
+     * 各节点调度相位不同时也不会在同一周期内重复衰减
+     */
+    @Scheduled(fixedDelayString = "#{@hotArticleConfig.trendingDecayIntervalMs}")
+    public void decayTrending() {
+        long interval = hotArticleConfig.getTrendingDecayIntervalMs();
+        String token = null;
+        try {
+            token = redisLock.tryLock(DECAY_LOCK_KEY, Duration.ofMinutes(1));
+            if (token == null) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            String last = stringRedisTemplate.opsForValue().get(DECAY_LAST_KEY);
+            long elapsed = last != null ? now - Long.parseLong(last) : interval;
+            if (elapsed < interval) {
+                return;
+            }
+            double halfLifeMs = hotArticleConfig.getTrendingHalfLifeHours() * 3600 * 1000;
+            double factor = Math.pow(0.5, elapsed / halfLifeMs);
+            // ZUNIONSTORE 单个集合并指定权重，等价于整体乘以衰减系数
+            stringRedisTemplate.opsForZSet().unionAndStore(Board.TRENDING.key, Collections.emptyList(),
+                    Board.TRENDING.key, RedisZSetCommands.Aggregate.SUM, RedisZSetCommands.Weights.of(factor));
+            // 清除几乎衰减为0的条目，控制集合大小
+            stringRedisTemplate.opsForZSet().removeRangeByScore(Board.TRENDING.key, 0, 0.01);
+            stringRedisTemplate.opsForValue().set(DECAY_LAST_KEY, String.valueOf(now));
+        } catch (Exception e) {
+            log.warn("Failed to decay trending ranking: {}", e.getMessage());
+        } finally {
+            if (token != null) {
+                redisLock.unlock(DECAY_LOCK_KEY, token);
+            }
+        }
+    }
+
+    private List<Long> readTop(Board board, int limit) {
+        Set<String> ids = stringRedisTemplate.opsForZSet().reverseRange(board.key, 0, limit - 1);
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        return ids.stream()
+                .map(Long::valueOf)
+                .collect(Collectors.toList());
+    }
+
+    private void seed() {
+        Boolean acquired = stringRedisTemplate.opsForValue()
+                .setIfAbsent(SEED_LOCK_KEY, "1", Duration.ofMinutes(1));
+        if (!Boolean.TRUE.equals(acquired)) {
+            return;
+        }
+        List<Article> articles = articleRepository.selectPublishedViewCounts();
+        for (int i = 0; i < articles.size(); i += SEED_BATCH_SIZE) {
+            Set<ZSetOperations.TypedTuple<String>> tuples = articles
+                    .subList(i, Math.min(i + SEED_BATCH_SIZE, articles.size())).stream()
+                    .map(article -> new DefaultTypedTuple<>(String.valueOf(article.getId()),
+                            article.getViewCount().doubleValue()))
+                    .collect(Collectors.toSet());
+            stringRedisTemplate.opsForZSet().add(Board.ALL_TIME.key, tuples);
+        }
+        log.info("Seeded hot article ranking with {} published articles", articles.size());
+    }
+}
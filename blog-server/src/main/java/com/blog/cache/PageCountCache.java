@@ -0,0 +1,128 @@
+package com.blog.cache;
+
+import com.blog.common.response.CountedPageInfo;
+import com.blog.common.util.TransactionUtils;
+import com.blog.config.PageCountConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.pagehelper.ISelect;
+import com.github.pagehelper.Page;
+import com.github.pagehelper.PageHelper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 分页总数缓存
+ * 按查询类型和规范化后的过滤条件缓存COUNT结果，命中时分页查询不再执行COUNT；
+ * 数据变更时按查询类型清除，并通过Redis发布订阅通知其他节点
+ */
+@Slf4j
+@Component
+public class PageCountCache implements MessageListener {
+
+    public static final String ARTICLE = "article";
+    public static final String USER = "user";
+    public static final String TAG = "tag";
+    public static final String CATEGORY = "category";
+
+    private static final String INVALIDATE_CHANNEL = "page:count:invalidate";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final PageCountConfig pageCountConfig;
+    private final Cache<String, Long> counts;
+
+    public PageCountCache(StringRedisTemplate stringRedisTemplate,
+                          RedisMessageListenerContainer listenerContainer,
+                          PageCountConfig pageCountConfig) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.pageCountConfig = pageCountConfig;
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(pageCountConfig.getMaxSize())
+                .expireAfterWrite(pageCountConfig.getTtlSeconds(), TimeUnit.SECONDS)
+                .build();
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    /**
+     * 分页查询，总数优先取缓存
+     * @param namespace 查询类型
+     * @param pageNum 页码
+     * @param pageSize 每页大小
+     * @param keyword 关键词（可选），开启估算时有关键词的查询不执行COUNT
+     * @param select 查询语句
+     * @param converter 结果转换函数
+     * @param filters 其他过滤条件，与关键词一起组成缓存键
+     * @return 分页信息
+     */
+    public <E, T> CountedPageInfo<T> selectPage(String namespace, int pageNum, int pageSize, String keyword,
+                                                ISelect select, Function<List<E>, List<T>> converter,
+                                                Object... filters) {
+        String normalizedKeyword = keyword != null ? keyword.trim().toLowerCase(Locale.ROOT) : "";
+        String key = namespace + ":" + normalizedKeyword + ":" + Arrays.stream(filters)
+                .map(String::valueOf)
+                .collect(Collectors.joining(":"));
+
+        Long cachedTotal = counts.getIfPresent(key);
+        if (cachedTotal != null) {
+            Page<E> page = PageHelper.startPage(pageNum, pageSize, false).doSelectPage(select);
+            return CountedPageInfo.of(pageNum, pageSize, cachedTotal, converter.apply(page), true);
+        }
+
+        if (!normalizedKeyword.isEmpty() && pageCountConfig.isApproximateKeywordSearch()) {
+            // 模糊查询无法走索引，跳过COUNT，以已读到的行数估算总数下限
+            Page<E> page = PageHelper.startPage(pageNum, pageSize, false).doSelectPage(select);
+            long total = (long) (pageNum - 1) * pageSize + page.size() + (page.size() == pageSize ? 1 : 0);
+            return CountedPageInfo.of(pageNum, pageSize, total, converter.apply(page), false);
+        }
+
+        Page<E> page = PageHelper.startPage(pageNum, pageSize).doSelectPage(select);
+        counts.put(key, page.getTotal());
+        return CountedPageInfo.of(page.getPageNum(), pageSize, page.getTotal(), converter.apply(page), true);
+    }
+
+    /**
+     * 清除指定查询类型的计数缓存，事务提交后执行
+     * @param namespaces 查询类型
+     */
+    public void invalidate(String... namespaces) {
+        TransactionUtils.afterCommit(() -> {
+            invalidateLocal(namespaces);
+            try {
+                stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL, String.join(",", namespaces));
+            } catch (Exception e) {
+                log.warn("Failed to broadcast page count invalidation: {}", e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        invalidateLocal(new String(message.getBody(), StandardCharsets.UTF_8).split(","));
+    }
+
+    private void invalidateLocal(String... namespaces) {
+        for (String namespace : namespaces) {
+            counts.asMap().keySet().removeIf(key -> key.startsWith(namespace + ":"));
+        }
+    }
+}
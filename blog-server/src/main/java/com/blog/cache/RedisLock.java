@@ -0,0 +1,64 @@
+package com.blog.cache;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * 多节点间的Redis锁
+ * 互斥锁以随机令牌为值，只有持有者才能释放；周期锁持有整个周期且不释放，
+ * 各节点的调度相位不同时，每个周期也只有一个节点执行
+ */
+@Component
+public class RedisLock {
+
+    /** 值与令牌一致时才删除，锁过期后被其他节点取得时不会误删 */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then\n" +
+            "  return redis.call('DEL', KEYS[1])\n" +
+            "end\n" +
+            "return 0", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public RedisLock(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * 获取互斥锁
+     * @param key 锁的键
+     * @param ttl 锁的过期时间，持有者异常退出时兜底释放
+     * @return 令牌，释放时传入；未取得时返回null
+     */
+    public String tryLock(String key, Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(key, token, ttl);
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    /**
+     * 释放互斥锁，锁已过期或已被其他节点持有时不做处理
+     * @param key 锁的键
+     * @param token tryLock返回的令牌
+     */
+    public void unlock(String key, String token) {
+        stringRedisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(key), token);
+    }
+
+    /**
+     * 获取周期任务本周期的执行权，取得后锁保持到周期结束
+     * @param key 锁的键
+     * @param intervalMs 任务周期（毫秒）
+     * @return 本节点是否在本周期执行
+     */
+    public boolean tryAcquireForInterval(String key, long intervalMs) {
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue()
+                .setIfAbsent(key, "1", Duration.ofMillis(intervalMs)));
+    }
+}
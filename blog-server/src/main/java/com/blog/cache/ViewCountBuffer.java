@@ -0,0 +1,106 @@
+package com.blog.cache;
+
+import com.blog.config.ViewCountConfig;
+import com.blog.repository.ArticleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 文章浏览量写缓冲
+ * 浏览量先累加在内存中，定期合并为一条批量UPDATE写入数据库，
+ * 避免热门文章的每次浏览都争用同一行锁
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ViewCountBuffer {
+
+    private final ArticleRepository articleRepository;
+    private final ArticleDetailCache articleDetailCache;
+    private final HotArticleRanking hotArticleRanking;
+    private final ViewCountConfig viewCountConfig;
+
+    /** 文章ID -> 未刷写的浏览量，累加和取出都是单个键上的原子操作 */
+    private final ConcurrentHashMap<Long, Long> pending = new ConcurrentHashMap<>();
+    private final AtomicLong pendingTotal = new AtomicLong();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * 累加一次浏览
+     * @param articleId 文章ID
+     */
+    public void increment(Long articleId) {
+        pending.merge(articleId, 1L, Long::sum);
+        // 积压超过上限时由当前线程立即刷写，已有刷写在进行时直接返回
+        if (pendingTotal.incrementAndGet() >= viewCountConfig.getMaxPending() && flushLock.tryLock()) {
+            try {
+                doFlush();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 获取尚未写入数据库的浏览量
+     * @param articleId 文章ID
+     * @return 未刷写的浏览量
+     */
+    public long getPending(Long articleId) {
+        return pending.getOrDefault(articleId, 0L);
+    }
+
+    @Scheduled(fixedDelayString = "#{@viewCountConfig.flushIntervalMs}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            doFlush();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Flushing pending view counts before shutdown");
+        flush();
+    }
+
+    private void doFlush() {
+        // 按ID排序，多节点同时刷写时保持一致的加锁顺序
+        Map<Long, Long> deltas = new TreeMap<>();
+        for (Long id : pending.keySet()) {
+            // 取出与移除是原子的，之后的浏览重新累加，不会丢失
+            Long delta = pending.remove(id);
+            if (delta != null && delta > 0) {
+                deltas.put(id, delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        long flushed = deltas.values().stream().mapToLong(Long::longValue).sum();
+        pendingTotal.addAndGet(-flushed);
+
+        try {
+            articleRepository.batchIncrementViewCount(deltas);
+            // 浏览量已落库，计入本节点缓存的详情，叠加的未刷写浏览量随之清零，显示的浏览量保持连续；
+            // 不清除缓存，其他节点和Redis中的详情在过期后更新
+            articleDetailCache.addViewCounts(deltas);
+            hotArticleRanking.recordViews(deltas);
+        } catch (Exception e) {
+            log.error("Failed to flush view counts for {} articles, will retry", deltas.size(), e);
+            deltas.forEach((id, delta) -> pending.merge(id, delta, Long::sum));
+            pendingTotal.addAndGet(flushed);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.blog.common.response;
+
+import com.github.pagehelper.Page;
+import com.github.pagehelper.PageInfo;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * 带总数精确性标记的分页信息
+ * 总数可能来自计数缓存或估算，totalExact为false时total只是下限
+ */
+@Getter
+@Setter
+public class CountedPageInfo<T> extends PageInfo<T> {
+    private boolean totalExact;
+
+    public CountedPageInfo(List<T> list) {
+        super(list);
+    }
+
+    /**
+     * 以转换后的数据构建分页信息
+     * @param pageNum 页码
+     * @param pageSize 每页大小
+     * @param total 总数
+     * @param list 当前页数据
+     * @param totalExact 总数是否精确
+     * @return 分页信息
+     */
+    public static <T> CountedPageInfo<T> of(int pageNum, int pageSize, long total, List<T> list, boolean totalExact) {
+        Page<T> page = new Page<>(pageNum, pageSize);
+        page.setTotal(total);
+        page.addAll(list);
+        CountedPageInfo<T> pageInfo = new CountedPageInfo<>(page);
+        pageInfo.setTotalExact(totalExact);
+        return pageInfo;
+    }
+}
@@ -0,0 +1,27 @@
+package com.blog.common.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public class HashUtils {
+
+    /**
+     * 计算SHA-256摘要
+     * @param data 原始数据
+     * @return 小写十六进制摘要
+     */
+    public static String sha256Hex(byte[] data) {
+        try {
+            byte[] bytes = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder sb = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HashUtils() {}
+}
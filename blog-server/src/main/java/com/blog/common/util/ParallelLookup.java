@@ -0,0 +1,78 @@
+package com.blog.common.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 并行执行多个相互独立的查询
+ * 每个查询的超时都从创建时开始计算，失败或超时时取默认值并标记为部分失败
+ */
+@Slf4j
+public class ParallelLookup {
+
+    private final Executor executor;
+    private final long startNanos = System.nanoTime();
+    private volatile boolean partial;
+
+    public ParallelLookup(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 提交查询，线程池已满时在当前线程中执行
+     * @param supplier 查询
+     * @return 查询结果
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            try {
+                future.complete(supplier.get());
+            } catch (Exception ex) {
+                future.completeExceptionally(ex);
+            }
+            return future;
+        }
+    }
+
+    /**
+     * 等待查询结果
+     * @param future 查询结果
+     * @param name 依赖名称，用于日志
+     * @param timeoutMs 超时时间（毫秒）
+     * @param fallback 失败或超时时的默认值
+     * @return 查询结果或默认值
+     */
+    public <T> T join(CompletableFuture<T> future, String name, long timeoutMs, T fallback) {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs) - (System.nanoTime() - startNanos);
+        try {
+            return future.get(Math.max(remainingNanos, 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Lookup {} timed out after {}ms", name, timeoutMs);
+        } catch (ExecutionException e) {
+            log.warn("Lookup {} failed: {}", name, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Lookup {} interrupted", name);
+        }
+        future.cancel(true);
+        partial = true;
+        return fallback;
+    }
+
+    /**
+     * 是否有查询失败或超时
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+}
@@ -0,0 +1,35 @@
+package com.blog.common.web;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记支持条件请求的GET接口
+ * 由ConditionalGetInterceptor在进入控制器之前计算ETag，与If-None-Match匹配时直接返回304
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+
+    /**
+     * 响应内容依赖的命名空间，见EtagRegistry
+     */
+    String[] value();
+
+    /**
+     * 是否为文章详情，为true时ETag还包含路径变量id对应文章的版本
+     */
+    boolean article() default false;
+
+    /**
+     * 响应是否包含预签名URL，为true时ETag和最后修改时间还包含签名周期，避免304沿用已过期的URL
+     */
+    boolean signedUrls() default false;
+
+    /**
+     * 按这些排序字段（请求参数sortField）查询时不做条件判断，用于随浏览量变化、没有版本号的排序
+     */
+    String[] volatileSortFields() default {};
+}
@@ -0,0 +1,89 @@
+package com.blog.common.web;
+
+import com.blog.cache.ArticleDetailCache;
+import com.blog.cache.EtagRegistry;
+import com.blog.cache.ViewCountBuffer;
+import com.blog.dto.response.ArticleDetailResponse;
+import com.blog.service.FileService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * 条件请求拦截器
+ * 对标记了ConditionalGet的接口写出ETag和Last-Modified，If-None-Match或If-Modified-Since匹配时返回304，不再调用服务层
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final EtagRegistry etagRegistry;
+    private final ArticleDetailCache articleDetailCache;
+    private final ViewCountBuffer viewCountBuffer;
+    private final FileService fileService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        ConditionalGet conditionalGet = ((HandlerMethod) handler).getMethodAnnotation(ConditionalGet.class);
+        if (conditionalGet == null) {
+            return true;
+        }
+        String sortField = request.getParameter("sortField");
+        if (sortField != null && Arrays.asList(conditionalGet.volatileSortFields()).contains(sortField)) {
+            return true;
+        }
+
+        Long articleId = null;
+        if (conditionalGet.article()) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> variables = (Map<String, String>) request
+                    .getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            try {
+                articleId = Long.valueOf(variables.get("id"));
+            } catch (RuntimeException e) {
+                return true;
+            }
+        }
+        EtagRegistry.Validators validators = etagRegistry.getValidators(conditionalGet.value(), articleId);
+        if (validators == null) {
+            return true;
+        }
+        String etag = validators.getEtag();
+        long lastModified = validators.getLastModified();
+        if (conditionalGet.signedUrls()) {
+            long epochStart = fileService.getSigningEpochStart();
+            etag = etag.substring(0, etag.length() - 1) + "-s" + Long.toString(epochStart, 36) + "\"";
+            lastModified = Math.max(lastModified, epochStart);
+        }
+        if (articleId != null) {
+            // 详情中的浏览量随浏览增长，计入ETag，避免304沿用过期的浏览量；只查缓存，未缓存时不做条件判断
+            ArticleDetailResponse cached = articleDetailCache.peek(articleId);
+            if (cached == null || cached.getViewCount() == null) {
+                return true;
+            }
+            long viewCount = cached.getViewCount() + viewCountBuffer.getPending(articleId);
+            etag = etag.substring(0, etag.length() - 1) + "-" + Long.toString(viewCount, 36) + "\"";
+        }
+        // 允许缓存但每次使用前必须重新验证
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        if (articleId != null) {
+            // 浏览量变化不改变最后修改时间，详情只按ETag判断，Last-Modified仅供参考
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified / 1000 * 1000);
+            return !webRequest.checkNotModified(etag);
+        }
+        return !webRequest.checkNotModified(etag, lastModified);
+    }
+}
@@ -0,0 +1,16 @@
+package com.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "article.cache")
+@Data
+public class ArticleCacheConfig {
+    private int localMaxSize = 1000; // 本地缓存最大条目数
+    private int localTtlSeconds = 60; // 本地缓存过期时间（秒），兜底丢失的失效广播
+    private int redisTtlMinutes = 30; // Redis缓存过期时间（分钟）
+    private int fragmentMaxSize = 10000; // 列表摘要JSON片段缓存最大条目数
+    private int renderMaxSize = 1000; // 渲染后HTML本地缓存最大条目数
+}
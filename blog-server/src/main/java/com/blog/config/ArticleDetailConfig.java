@@ -0,0 +1,39 @@
+package com.blog.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@ConfigurationProperties(prefix = "article.detail")
+@Data
+public class ArticleDetailConfig {
+    private int poolSize = 16; // 详情并行查询线程数
+    private int queueCapacity = 256; // 等待队列长度，队列满时在调用线程中执行
+    private long contentTimeoutMs = 3000; // 文章内容读取超时（毫秒）
+    private long lookupTimeoutMs = 1000; // 分类、作者、标签查询超时（毫秒）
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService articleDetailExecutor(MeterRegistry meterRegistry) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "article-detail-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "article.detail");
+    }
+}
@@ -0,0 +1,40 @@
+package com.blog.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@ConfigurationProperties(prefix = "article.import")
+@Data
+public class ArticleImportConfig {
+    private int uploadConcurrency = 8; // 正文并行上传线程数
+    private int batchSize = 500; // 每批插入的文章数，也是同时持有的最大正文数
+    private int maxLineLength = 4 * 1024 * 1024; // 单行最大字符数，超出的行跳过并报告
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService articleImportExecutor(MeterRegistry meterRegistry) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(uploadConcurrency, uploadConcurrency,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(batchSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "article-import-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // 多个导入同时进行时队列可能排满，由读取线程自己上传形成背压
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "article.import");
+    }
+}
@@ -0,0 +1,14 @@
+package com.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "content.cache")
+@Data
+public class ContentCacheConfig {
+    private boolean enabled = true; // 是否启用本地内容缓存
+    private String dir = "./cache/content"; // 缓存目录
+    private long maxSizeMb = 512; // 缓存容量上限（MB）
+}
@@ -0,0 +1,15 @@
+package com.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "content.sweep")
+@Data
+public class ContentSweepConfig {
+    private boolean enabled = true; // 是否清理不再被引用的文章内容
+    private long intervalMs = 3600000; // 清理间隔（毫秒）
+    private long graceMinutes = 60; // 宽限期（分钟），更新时间在此之内的对象不清理
+    private int batchSize = 1000; // 每批删除的对象数
+}
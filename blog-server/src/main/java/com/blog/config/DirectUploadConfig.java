@@ -0,0 +1,13 @@
+package com.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "minio.direct-upload")
+@Data
+public class DirectUploadConfig {
+    private int urlExpirySeconds = 300; // 上传URL有效期（秒），须小于minio.outbox.staged-timeout-minutes
+    private long completeGraceSeconds = 600; // 上传URL过期后仍可确认上传的时间（秒），覆盖慢速上传
+}
@@ -0,0 +1,15 @@
+package com.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "article.hot")
+@Data
+public class HotArticleConfig {
+    private int localTopK = 100; // 本地保留的排行榜条目数
+    private long refreshIntervalMs = 5000; // 本地排行榜刷新间隔（毫秒）
+    private double trendingHalfLifeHours = 24; // 趋势榜分数半衰期（小时）
+    private long trendingDecayIntervalMs = 3600000; // 趋势榜衰减执行间隔（毫秒）
+}
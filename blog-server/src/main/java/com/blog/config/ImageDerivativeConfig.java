@@ -0,0 +1,42 @@
+package com.blog.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@ConfigurationProperties(prefix = "minio.derivatives")
+@Data
+public class ImageDerivativeConfig {
+    private boolean enabled = true; // 是否在图片上传后生成缩略图等衍生版本
+    private int poolSize = 2; // 生成衍生版本的线程数，解码和缩放占用CPU和内存
+    private int queueCapacity = 200; // 等待队列长度，队列满时跳过生成，接口继续返回原图
+    private long maxPixels = 40_000_000L; // 超过该像素数的图片不处理，避免解码占用过多内存
+    private float jpegQuality = 0.82f; // JPEG衍生版本的压缩质量
+    private long variantCacheMaxSize = 100000; // 本地缓存的图片衍生版本记录数
+    private long variantCacheSeconds = 60; // 衍生版本记录的本地缓存时间（秒），生成中的图片在此之后重新查询
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService imageDerivativeExecutor(MeterRegistry meterRegistry) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivative-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "image.derivative");
+    }
+}
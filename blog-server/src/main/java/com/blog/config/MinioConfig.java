@@ -1,7 +1,9 @@
 package com.blog.config;
 
+import com.blog.storage.MultipartMinioClient;
 import io.minio.BucketExistsArgs;
 import io.minio.MakeBucketArgs;
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
@@ -19,6 +21,7 @@ public class MinioConfig {
     private String accessKey;
     private String secretKey;
     private int urlExpiry = 24; // URL过期时间（小时）
+    private int urlCacheMaxSize = 100000; // 预签名URL缓存最大条目数
     private int maxRetries = 3; // 最大重试次数
 
     @Bean
@@ -29,4 +32,12 @@ public class MinioConfig {
                 .credentials(accessKey, secretKey)
                 .build();
     }
+
+    @Bean
+    public MultipartMinioClient multipartMinioClient() {
+        return new MultipartMinioClient(MinioAsyncClient.builder()
+                .endpoint(endpoint)
+                .credentials(accessKey, secretKey)
+                .build());
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "minio.multipart")
+@Data
+public class MultipartUploadConfig {
+    private int partSize = 8 * 1024 * 1024; // 分片大小（字节），MinIO要求除最后一片外不小于5MB
+    private long maxImageSize = 50 * 1024 * 1024L; // 分片上传图片的大小上限（字节）
+    private long maxAttachmentSize = 1024 * 1024 * 1024L; // 分片上传附件的大小上限（字节）
+    private int maxConcurrentParts = 16; // 本节点同时接收的分片数，每个分片在内存中缓冲
+    private long sessionTtlMinutes = 1440; // 上传会话有效期（分钟），过期未完成的上传被中止
+    private long cleanupIntervalMs = 600000; // 清理过期上传的间隔（毫秒）
+}
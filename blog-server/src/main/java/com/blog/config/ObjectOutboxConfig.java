@@ -0,0 +1,14 @@
+package com.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "minio.outbox")
+@Data
+public class ObjectOutboxConfig {
+    private long intervalMs = 60000; // 处理待办的间隔（毫秒）
+    private long stagedTimeoutMinutes = 30; // 上传后超过该时间仍未提交引用的对象视为孤儿删除（分钟）
+    private int batchSize = 500; // 每次处理的待办数
+}
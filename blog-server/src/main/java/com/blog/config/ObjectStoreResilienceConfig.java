@@ -0,0 +1,50 @@
+package com.blog.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@ConfigurationProperties(prefix = "minio.resilience")
+@Data
+public class ObjectStoreResilienceConfig {
+    private int poolSize = 32; // 执行MinIO调用的线程数
+    private int queueCapacity = 512; // 等待队列长度，队列满时直接失败
+    private long callTimeoutMs = 10000; // 含重试在内单次调用的总超时（毫秒）
+    private Map<String, Long> operationTimeoutMs = new HashMap<>(); // 按操作名覆盖总超时（毫秒），如传输大分片的uploadPart
+    private long baseBackoffMs = 200; // 首次重试的退避上限（毫秒），之后逐次翻倍，实际等待在0到上限间随机
+    private long maxBackoffMs = 2000; // 退避上限（毫秒）
+    private int breakerWindowSize = 20; // 熔断器统计最近的调用数
+    private int breakerMinCalls = 10; // 窗口内调用数达到该值后才计算失败率
+    private double breakerFailureRate = 0.5; // 失败率达到该值时熔断
+    private long breakerOpenMs = 10000; // 熔断持续时间（毫秒），之后放行一次探测调用
+    private boolean hedgeEnabled = true; // 是否对内容读取发出对冲请求
+    private double hedgePercentile = 0.95; // 首个请求耗时超过该分位数时发出第二个请求
+    private long hedgeMinDelayMs = 50; // 对冲等待的下限（毫秒），也用于尚无耗时统计时
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService objectStoreExecutor(MeterRegistry meterRegistry) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "object-store-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "object.store");
+    }
+}
@@ -0,0 +1,14 @@
+package com.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "page-count")
+@Data
+public class PageCountConfig {
+    private int maxSize = 10000; // 计数缓存最大条目数
+    private int ttlSeconds = 60; // 计数缓存过期时间（秒）
+    private boolean approximateKeywordSearch = false; // 关键词模糊查询时是否跳过COUNT返回估算总数
+}
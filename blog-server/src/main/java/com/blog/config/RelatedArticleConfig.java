@@ -0,0 +1,17 @@
+package com.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "article.related")
+@Data
+public class RelatedArticleConfig {
+    private int topK = 20; // 每篇文章保留的相关文章数
+    private int candidateLimit = 200; // 按标签和分类各自召回的候选文章数上限
+    private double categoryBoost = 0.3; // 同分类加分
+    private double recencyWeight = 0.2; // 新近度权重
+    private double recencyHalfLifeDays = 180; // 新近度半衰期（天）
+    private long rebuildIntervalMs = 86400000; // 全量重算间隔（毫秒），用于刷新新近度分数
+}
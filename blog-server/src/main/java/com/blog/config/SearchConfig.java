@@ -0,0 +1,14 @@
+package com.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "article.search")
+@Data
+public class SearchConfig {
+    private boolean enabled = true; // 是否启用全文索引，关闭时退回数据库模糊查询
+    private String indexDir = "./index/articles"; // 索引目录
+    private long commitIntervalMs = 30000; // 索引提交间隔（毫秒）
+}
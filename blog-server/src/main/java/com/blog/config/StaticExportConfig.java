@@ -0,0 +1,15 @@
+package com.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "article.static-export")
+@Data
+public class StaticExportConfig {
+    private boolean enabled = false; // 是否导出静态站点
+    private String outputDir = "./static-site"; // 导出目录，由nginx直接提供
+    private int pageSize = 20; // 分类和标签页每页文章数
+    private long flushIntervalMs = 5000; // 合并变更后写出的间隔（毫秒）
+}
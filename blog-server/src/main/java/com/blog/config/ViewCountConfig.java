@@ -0,0 +1,13 @@
+package com.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "article.view-count")
+@Data
+public class ViewCountConfig {
+    private long flushIntervalMs = 5000; // 浏览量刷写间隔（毫秒）
+    private long maxPending = 10000; // 未刷写浏览量上限，超过后立即刷写
+}
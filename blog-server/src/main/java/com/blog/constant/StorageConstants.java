@@ -8,11 +8,24 @@ public class StorageConstants {
     public static final String ARTICLE_DIR = BASE_DIR + "/articles";
     public static final String ARTICLE_CONTENT_DIR = ARTICLE_DIR + "/content";
     public static final String ARTICLE_IMAGES_DIR = ARTICLE_DIR + "/images";
+    public static final String ARTICLE_ATTACHMENTS_DIR = ARTICLE_DIR + "/attachments";
     
     // 用户相关目录
     public static final String USER_DIR = BASE_DIR + "/users";
     public static final String AVATAR_DIR = USER_DIR + "/avatars";
     
+    // 直传上传的暂存目录，确认后复制到正式目录
+    public static final String UPLOAD_STAGING_DIR = BASE_DIR + "/staging";
+
+    // 预压缩内容的对象名后缀
+    public static final String GZIP_SUFFIX = ".gz";
+
+    // 渲染结果的对象名后缀，渲染规则变化时升级版本号，旧结果在读取时重新生成
+    public static final String RENDER_SUFFIX = ".render-v1.json";
+    
+    // 图片衍生版本的对象名标记，衍生版本与原图同目录，如 {原图}.variant-small.jpg
+    public static final String IMAGE_VARIANT_MARKER = ".variant-";
+    
     // 按时间组织的目录格式
     public static final String DATE_PATH_FORMAT = "yyyy/MM/dd";
 
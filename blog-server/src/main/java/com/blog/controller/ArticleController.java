@@ -1,20 +1,42 @@
 package com.blog.controller;
 
+import com.blog.cache.EtagRegistry;
 import com.blog.common.response.ApiResponse;
+import com.blog.common.web.ConditionalGet;
 import com.blog.dto.request.ArticleCreateRequest;
+import com.blog.dto.request.ArticleCursor;
+import com.blog.dto.request.ArticleRetagRequest;
 import com.blog.dto.request.ArticleUpdateRequest;
+import com.blog.dto.response.ArticleContentResponse;
 import com.blog.dto.response.ArticleDetailResponse;
+import com.blog.dto.response.ArticleSummaryJson;
+import com.blog.dto.response.CursorPageResponse;
 import com.blog.model.Article;
+import com.blog.service.ArticleImportService;
 import com.blog.service.ArticleService;
+import com.blog.storage.ContentStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.pagehelper.PageInfo;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.List;
 
 @Tag(name = "文章管理")
@@ -23,7 +45,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ArticleController {
 
+    private static final MediaType MARKDOWN = new MediaType("text", "markdown", StandardCharsets.UTF_8);
+
     private final ArticleService articleService;
+    private final ArticleImportService articleImportService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "创建文章")
     @PostMapping
@@ -32,12 +58,91 @@ public class ArticleController {
         return ApiResponse.success(articleService.create(request));
     }
 
+    @Operation(summary = "批量导入文章", description = "请求体为NDJSON，每行一篇文章；响应以NDJSON逐行返回出错的行和每批进度")
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public void importArticles(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream output = response.getOutputStream();
+        articleImportService.importArticles(request.getInputStream(), event -> {
+            try {
+                output.write(objectMapper.writeValueAsBytes(event));
+                output.write('\n');
+                output.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
     @Operation(summary = "获取文章详情")
     @GetMapping("/{id}")
-    public ApiResponse<ArticleDetailResponse> getById(@PathVariable Long id) {
+    @ConditionalGet(value = EtagRegistry.ARTICLE_LABELS, article = true, signedUrls = true)
+    public ApiResponse<ArticleDetailResponse> getById(
+            @PathVariable Long id,
+            @Parameter(description = "内容格式，html返回渲染后的HTML和目录") @RequestParam(required = false) String format) {
+        if ("html".equalsIgnoreCase(format)) {
+            return ApiResponse.success(articleService.getRenderedById(id));
+        }
         return ApiResponse.success(articleService.getById(id));
     }
 
+    @Operation(summary = "获取文章正文markdown", description = "支持单个Range范围请求，范围请求返回未压缩内容")
+    @GetMapping("/{id}/content")
+    public void getContent(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            ServletWebRequest webRequest,
+            HttpServletResponse response) throws IOException {
+        // 范围按未压缩内容计算，续传时不受Accept-Encoding影响
+        ArticleContentResponse content = articleService.getContent(id,
+                range == null && acceptsGzip(acceptEncoding), ifNoneMatch);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (content.getBody() == null) {
+            // 客户端缓存仍有效，内容未打开
+            webRequest.checkNotModified(content.getEtag());
+            return;
+        }
+        try (ContentStream body = content.getBody()) {
+            long length = body.length();
+            long start = 0;
+            long end = length - 1;
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            // If-Range与当前版本不一致时忽略范围，返回完整内容；多个范围同样返回完整内容
+            if (range != null && (ifRange == null || ifRange.equals(content.getEtag()))) {
+                List<HttpRange> ranges;
+                try {
+                    ranges = HttpRange.parseRanges(range);
+                } catch (IllegalArgumentException e) {
+                    ranges = Collections.emptyList();
+                }
+                if (ranges.size() == 1) {
+                    try {
+                        start = ranges.get(0).getRangeStart(length);
+                        end = ranges.get(0).getRangeEnd(length);
+                    } catch (IllegalArgumentException e) {
+                        response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                        return;
+                    }
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            }
+            response.setContentType(MARKDOWN.toString());
+            if (content.getContentEncoding() != null) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, content.getContentEncoding());
+            }
+            response.setContentLengthLong(end - start + 1);
+            // 直接写入响应输出流，不在内存中保留完整正文
+            body.writeTo(start, end - start + 1, response.getOutputStream());
+        }
+    }
+
     @Operation(summary = "更新文章")
     @PutMapping("/{id}")
     @PreAuthorize("@articleService.isArticleAuthor(#id)")
@@ -57,7 +162,9 @@ public class ArticleController {
 
     @Operation(summary = "获取文章列表")
     @GetMapping
-    public ApiResponse<PageInfo<ArticleDetailResponse>> getList(
+    @ConditionalGet(value = {EtagRegistry.ARTICLE_LIST, EtagRegistry.ARTICLE_LABELS}, signedUrls = true,
+            volatileSortFields = ArticleCursor.SORT_VIEW_COUNT)
+    public ApiResponse<PageInfo<ArticleSummaryJson>> getList(
             @Parameter(description = "页码") @RequestParam(defaultValue = "1") int pageNum,
             @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") int pageSize,
             @Parameter(description = "分类ID") @RequestParam(required = false) Long categoryId,
@@ -68,17 +175,40 @@ public class ArticleController {
         return ApiResponse.success(articleService.getList(pageNum, pageSize, categoryId, tagId, keyword, sortField, sortDirection));
     }
 
+    @Operation(summary = "游标分页获取文章列表")
+    @GetMapping(params = "cursor")
+    @ConditionalGet(value = {EtagRegistry.ARTICLE_LIST, EtagRegistry.ARTICLE_LABELS}, signedUrls = true,
+            volatileSortFields = ArticleCursor.SORT_VIEW_COUNT)
+    public ApiResponse<CursorPageResponse<ArticleSummaryJson>> getListByCursor(
+            @Parameter(description = "游标，首页传空值，之后传上一页返回的nextCursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") int pageSize,
+            @Parameter(description = "分类ID") @RequestParam(required = false) Long categoryId,
+            @Parameter(description = "标签ID") @RequestParam(required = false) Long tagId,
+            @Parameter(description = "搜索关键词") @RequestParam(required = false) String keyword,
+            @Parameter(description = "排序字段") @RequestParam(defaultValue = "createTime") String sortField,
+            @Parameter(description = "排序方向") @RequestParam(defaultValue = "desc") String sortDirection) {
+        return ApiResponse.success(articleService.getListByCursor(cursor, pageSize, categoryId, tagId, keyword, sortField, sortDirection));
+    }
+
     @Operation(summary = "获取热门文章")
     @GetMapping("/hot")
-    public ApiResponse<List<ArticleDetailResponse>> getHotArticles(
+    public ApiResponse<List<ArticleSummaryJson>> getHotArticles(
             @Parameter(description = "获取数量") @RequestParam(defaultValue = "10") int limit) {
         return ApiResponse.success(articleService.getHotArticles(limit));
     }
 
+    @Operation(summary = "获取趋势文章")
+    @GetMapping("/trending")
+    public ApiResponse<List<ArticleSummaryJson>> getTrendingArticles(
+            @Parameter(description = "获取数量") @RequestParam(defaultValue = "10") int limit) {
+        return ApiResponse.success(articleService.getTrendingArticles(limit));
+    }
+
     @Operation(summary = "获取推荐文章")
     @GetMapping("/recommended")
-    public ApiResponse<List<ArticleDetailResponse>> getRecommendedArticles(
-            @Parameter(description = "文章ID") @PathVariable Long articleId,
+    @ConditionalGet(value = {EtagRegistry.ARTICLE_LIST, EtagRegistry.ARTICLE_LABELS}, signedUrls = true)
+    public ApiResponse<List<ArticleSummaryJson>> getRecommendedArticles(
+            @Parameter(description = "文章ID") @RequestParam Long articleId,
             @Parameter(description = "获取数量") @RequestParam(defaultValue = "5") int limit) {
         return ApiResponse.success(articleService.getRecommendedArticles(articleId, limit));
     }
@@ -93,6 +223,14 @@ public class ArticleController {
         return ApiResponse.success();
     }
 
+    @Operation(summary = "批量修改文章标签")
+    @PutMapping("/tags")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<Void> retag(@Validated @RequestBody ArticleRetagRequest request) {
+        articleService.retag(request);
+        return ApiResponse.success();
+    }
+
     @Operation(summary = "设置文章置顶")
     @PutMapping("/{id}/top")
     @PreAuthorize("hasRole('ADMIN')")
@@ -112,10 +250,54 @@ public class ArticleController {
 
     @Operation(summary = "获取用户的文章列表")
     @GetMapping("/user/{userId}")
-    public ApiResponse<PageInfo<ArticleDetailResponse>> getUserArticles(
+    @ConditionalGet(value = {EtagRegistry.ARTICLE_LIST, EtagRegistry.ARTICLE_LABELS}, signedUrls = true)
+    public ApiResponse<PageInfo<ArticleSummaryJson>> getUserArticles(
             @PathVariable Long userId,
             @Parameter(description = "页码") @RequestParam(defaultValue = "1") int pageNum,
             @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") int pageSize) {
         return ApiResponse.success(articleService.getUserArticles(userId, pageNum, pageSize));
     }
-} 
\ No newline at end of file
+
+    @Operation(summary = "游标分页获取用户的文章列表")
+    @GetMapping(value = "/user/{userId}", params = "cursor")
+    @ConditionalGet(value = {EtagRegistry.ARTICLE_LIST, EtagRegistry.ARTICLE_LABELS}, signedUrls = true)
+    public ApiResponse<CursorPageResponse<ArticleSummaryJson>> getUserArticlesByCursor(
+            @PathVariable Long userId,
+            @Parameter(description = "游标，首页传空值，之后传上一页返回的nextCursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") int pageSize) {
+        return ApiResponse.success(articleService.getUserArticlesByCursor(userId, cursor, pageSize));
+    }
+
+    /**
+     * 判断Accept-Encoding是否接受gzip，明确列出的gzip优先于通配符，q=0表示拒绝
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            String name = parts[0].trim();
+            if ("gzip".equalsIgnoreCase(name)) {
+                gzipQuality = quality;
+            } else if ("*".equals(name)) {
+                wildcardQuality = quality;
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return quality != null && quality > 0;
+    }
+}
@@ -1,6 +1,8 @@
 package com.blog.controller;
 
+import com.blog.cache.EtagRegistry;
 import com.blog.common.response.ApiResponse;
+import com.blog.common.web.ConditionalGet;
 import com.blog.dto.request.CategoryRequest;
 import com.blog.dto.response.CategoryResponse;
 import com.blog.service.CategoryService;
@@ -49,12 +51,14 @@ public class CategoryController {
 
     @Operation(summary = "获取分类详情")
     @GetMapping("/{id}")
+    @ConditionalGet(EtagRegistry.CATEGORY)
     public ApiResponse<CategoryResponse> getById(@PathVariable Long id) {
         return ApiResponse.success(categoryService.getById(id));
     }
 
     @Operation(summary = "获取分类列表")
     @GetMapping
+    @ConditionalGet(EtagRegistry.CATEGORY)
     public ApiResponse<PageInfo<CategoryResponse>> getList(
             @Parameter(description = "页码") @RequestParam(defaultValue = "1") int pageNum,
             @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") int pageSize,
@@ -64,6 +68,7 @@ public class CategoryController {
 
     @Operation(summary = "获取所有分类")
     @GetMapping("/all")
+    @ConditionalGet(EtagRegistry.CATEGORY)
     public ApiResponse<List<CategoryResponse>> getAllCategories() {
         return ApiResponse.success(categoryService.getAllCategories());
     }
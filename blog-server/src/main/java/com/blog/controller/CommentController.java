@@ -1,6 +1,8 @@
 package com.blog.controller;
 
+import com.blog.cache.EtagRegistry;
 import com.blog.common.response.ApiResponse;
+import com.blog.common.web.ConditionalGet;
 import com.blog.dto.request.CommentRequest;
 import com.blog.dto.response.CommentResponse;
 import com.blog.service.CommentService;
@@ -39,6 +41,7 @@ public class CommentController {
 
     @Operation(summary = "获取文章评论列表")
     @GetMapping("/article/{articleId}")
+    @ConditionalGet(value = EtagRegistry.COMMENT, signedUrls = true)
     public ApiResponse<List<CommentResponse>> getArticleComments(
             @Parameter(description = "文章ID") @PathVariable Long articleId) {
         return ApiResponse.success(commentService.getArticleComments(articleId));
@@ -46,6 +49,7 @@ public class CommentController {
 
     @Operation(summary = "获取用户评论列表")
     @GetMapping("/user/{userId}")
+    @ConditionalGet(value = EtagRegistry.COMMENT, signedUrls = true)
     public ApiResponse<List<CommentResponse>> getUserComments(
             @Parameter(description = "用户ID") @PathVariable Long userId) {
         return ApiResponse.success(commentService.getUserComments(userId));
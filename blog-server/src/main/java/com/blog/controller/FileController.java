@@ -2,14 +2,25 @@ package com.blog.controller;
 
 import com.blog.common.response.ApiResponse;
 import com.blog.constant.StorageConstants;
+import com.blog.dto.request.DirectUploadRequest;
+import com.blog.dto.request.UploadSessionCreateRequest;
+import com.blog.dto.response.DirectUploadResponse;
+import com.blog.dto.response.UploadSessionResponse;
+import com.blog.service.DirectUploadService;
 import com.blog.service.FileService;
+import com.blog.service.MultipartUploadService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
 @Tag(name = "文件管理")
 @RestController
 @RequestMapping("/api/files")
@@ -17,6 +28,8 @@ import org.springframework.web.multipart.MultipartFile;
 public class FileController {
 
     private final FileService fileService;
+    private final MultipartUploadService multipartUploadService;
+    private final DirectUploadService directUploadService;
 
     @Operation(summary = "上传文章图片")
     @PostMapping(value = "/article/images", consumes = "multipart/form-data")
@@ -47,4 +60,52 @@ public class FileController {
         fileService.deleteFile(filePath);
         return ApiResponse.success();
     }
-} 
\ No newline at end of file
+
+    @Operation(summary = "申请直传上传地址",
+            description = "返回预签名PUT地址，客户端携带headers中的请求头将文件直接上传到存储，完成后调用确认接口")
+    @PostMapping("/direct-uploads")
+    public ApiResponse<DirectUploadResponse> createDirectUpload(@Validated @RequestBody DirectUploadRequest request) {
+        return ApiResponse.success(directUploadService.create(request));
+    }
+
+    @Operation(summary = "确认直传上传", description = "校验存储中的文件与申请一致，返回文件URL")
+    @PostMapping("/direct-uploads/{uploadId}/complete")
+    public ApiResponse<DirectUploadResponse> completeDirectUpload(@PathVariable String uploadId) {
+        return ApiResponse.success(directUploadService.complete(uploadId));
+    }
+
+    @Operation(summary = "创建分片上传", description = "用于大图片和附件，返回分片大小和分片数")
+    @PostMapping("/uploads")
+    public ApiResponse<UploadSessionResponse> createUpload(@Validated @RequestBody UploadSessionCreateRequest request) {
+        return ApiResponse.success(multipartUploadService.create(request));
+    }
+
+    @Operation(summary = "获取分片上传进度", description = "返回已上传的分片号，断点续传时只需上传其余分片")
+    @GetMapping("/uploads/{uploadId}")
+    public ApiResponse<UploadSessionResponse> getUpload(@PathVariable String uploadId) {
+        return ApiResponse.success(multipartUploadService.get(uploadId));
+    }
+
+    @Operation(summary = "上传分片", description = "请求体为分片的原始字节，分片可并行上传，失败后重传同一分片号")
+    @PutMapping(value = "/uploads/{uploadId}/parts/{partNumber}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ApiResponse<Void> uploadPart(
+            @PathVariable String uploadId,
+            @PathVariable int partNumber,
+            HttpServletRequest request) throws IOException {
+        multipartUploadService.uploadPart(uploadId, partNumber, request.getInputStream(), request.getContentLengthLong());
+        return ApiResponse.success();
+    }
+
+    @Operation(summary = "完成分片上传", description = "合并全部分片，返回文件URL")
+    @PostMapping("/uploads/{uploadId}/complete")
+    public ApiResponse<UploadSessionResponse> completeUpload(@PathVariable String uploadId) {
+        return ApiResponse.success(multipartUploadService.complete(uploadId));
+    }
+
+    @Operation(summary = "中止分片上传")
+    @DeleteMapping("/uploads/{uploadId}")
+    public ApiResponse<Void> abortUpload(@PathVariable String uploadId) {
+        multipartUploadService.abort(uploadId);
+        return ApiResponse.success();
+    }
+}
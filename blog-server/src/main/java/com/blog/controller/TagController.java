@@ -1,6 +1,8 @@
 package com.blog.controller;
 
+import com.blog.cache.EtagRegistry;
 import com.blog.common.response.ApiResponse;
+import com.blog.common.web.ConditionalGet;
 import com.blog.dto.request.TagRequest;
 import com.blog.dto.response.TagResponse;
 import com.blog.service.TagService;
@@ -48,12 +50,14 @@ public class TagController {
 
     @Operation(summary = "获取标签详情")
     @GetMapping("/{id}")
+    @ConditionalGet(EtagRegistry.TAG)
     public ApiResponse<TagResponse> getById(@PathVariable Long id) {
         return ApiResponse.success(tagService.getById(id));
     }
 
     @Operation(summary = "获取标签列表")
     @GetMapping
+    @ConditionalGet(EtagRegistry.TAG)
     public ApiResponse<PageInfo<TagResponse>> getList(
             @Parameter(description = "页码") @RequestParam(defaultValue = "1") int pageNum,
             @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") int pageSize,
@@ -63,6 +67,7 @@ public class TagController {
 
     @Operation(summary = "获取所有标签")
     @GetMapping("/all")
+    @ConditionalGet(EtagRegistry.TAG)
     public ApiResponse<List<TagResponse>> getAllTags() {
         return ApiResponse.success(tagService.getAllTags());
     }
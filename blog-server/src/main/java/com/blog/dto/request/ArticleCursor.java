@@ -0,0 +1,68 @@
+package com.blog.dto.request;
+
+import com.blog.exception.Asserts;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 文章列表游标
+ * 记录上一页最后一条文章的排序键，编码为不透明字符串返回给客户端
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleCursor {
+    public static final String SORT_CREATE_TIME = "createTime";
+    public static final String SORT_VIEW_COUNT = "viewCount";
+
+    private String sortField;
+    private Boolean isDesc;
+    private Boolean isTop;
+    private LocalDateTime createTime;
+    private Integer viewCount;
+    private Long id;
+
+    public String encode() {
+        String raw = String.join("|", sortField, String.valueOf(isDesc), String.valueOf(isTop),
+                String.valueOf(createTime), String.valueOf(viewCount), String.valueOf(id));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，并校验与当前请求的排序方式一致
+     * @param token 游标字符串，为空时表示第一页
+     * @param sortField 排序字段
+     * @param isDesc 是否降序
+     * @return 游标，第一页时返回null
+     */
+    public static ArticleCursor decode(String token, String sortField, boolean isDesc) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            ArticleCursor cursor = ArticleCursor.builder()
+                    .sortField(parts[0])
+                    .isDesc(Boolean.valueOf(parts[1]))
+                    .isTop(Boolean.valueOf(parts[2]))
+                    .createTime("null".equals(parts[3]) ? null : LocalDateTime.parse(parts[3]))
+                    .viewCount("null".equals(parts[4]) ? null : Integer.valueOf(parts[4]))
+                    .id(Long.valueOf(parts[5]))
+                    .build();
+            if (cursor.getSortField().equals(sortField) && cursor.getIsDesc() == isDesc) {
+                return cursor;
+            }
+        } catch (RuntimeException e) {
+            // 按无效游标处理
+        }
+        Asserts.fail("无效的分页游标");
+        return null;
+    }
+}
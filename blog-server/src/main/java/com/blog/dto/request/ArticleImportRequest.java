@@ -0,0 +1,34 @@
+package com.blog.dto.request;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 批量导入的单篇文章，对应NDJSON中的一行
+ */
+@Data
+public class ArticleImportRequest {
+    @NotBlank(message = "文章标题不能为空")
+    @Size(max = 200, message = "文章标题不能超过200个字符")
+    private String title;
+
+    @NotBlank(message = "文章内容不能为空")
+    private String content;
+
+    @Size(max = 500, message = "文章摘要不能超过500个字符")
+    private String summary;
+
+    private Long categoryId;
+
+    private List<Long> tagIds;  // 文章标签ID列表
+
+    @Pattern(regexp = "DRAFT|PUBLISHED", message = "文章状态只能是DRAFT或PUBLISHED")
+    private String status;  // 默认DRAFT
+
+    private LocalDateTime createTime;  // 原平台的发布时间，默认当前时间
+}
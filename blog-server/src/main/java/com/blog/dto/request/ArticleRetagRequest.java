@@ -0,0 +1,18 @@
+package com.blog.dto.request;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+public class ArticleRetagRequest {
+    @NotEmpty(message = "文章ID列表不能为空")
+    @Size(max = 1000, message = "单次最多修改1000篇文章")
+    private List<Long> articleIds;
+
+    private List<Long> addTagIds;  // 要添加的标签ID列表
+
+    private List<Long> removeTagIds;  // 要移除的标签ID列表
+}
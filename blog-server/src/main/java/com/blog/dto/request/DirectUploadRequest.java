@@ -0,0 +1,25 @@
+package com.blog.dto.request;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Positive;
+
+@Data
+public class DirectUploadRequest {
+    @NotBlank(message = "文件名不能为空")
+    private String filename;
+
+    @NotBlank(message = "文件类型不能为空")
+    private String contentType;
+
+    @NotNull(message = "文件大小不能为空")
+    @Positive(message = "文件大小必须大于0")
+    private Long size;
+
+    @NotBlank(message = "上传目标不能为空")
+    @Pattern(regexp = "ARTICLE_IMAGE|AVATAR", message = "上传目标只能是ARTICLE_IMAGE或AVATAR")
+    private String target;  // ARTICLE_IMAGE：文章图片和封面，AVATAR：用户头像
+}
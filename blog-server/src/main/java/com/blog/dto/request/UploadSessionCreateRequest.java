@@ -0,0 +1,25 @@
+package com.blog.dto.request;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Positive;
+
+@Data
+public class UploadSessionCreateRequest {
+    @NotBlank(message = "文件名不能为空")
+    private String filename;
+
+    @NotBlank(message = "文件类型不能为空")
+    private String contentType;
+
+    @NotNull(message = "文件大小不能为空")
+    @Positive(message = "文件大小必须大于0")
+    private Long size;
+
+    @NotBlank(message = "上传类别不能为空")
+    @Pattern(regexp = "IMAGE|ATTACHMENT", message = "上传类别只能是IMAGE或ATTACHMENT")
+    private String category;  // IMAGE：文章图片，ATTACHMENT：文章附件
+}
@@ -16,7 +16,7 @@ public class UserUpdateRequest {
     @Email(message = "邮箱格式不正确")
     private String email;
     
-    @Schema(description = "头像URL")
+    @Schema(description = "头像URL，取自上传头像接口的返回值")
     private String avatarUrl;
     
     @Schema(description = "密码")
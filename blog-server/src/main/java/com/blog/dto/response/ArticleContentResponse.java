@@ -0,0 +1,21 @@
+package com.blog.dto.response;
+
+import com.blog.storage.ContentStream;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 文章正文原始内容
+ */
+@Data
+@AllArgsConstructor
+public class ArticleContentResponse {
+    /** markdown内容，contentEncoding不为空时为压缩后的内容；写出后须关闭；客户端缓存未过时为空 */
+    private ContentStream body;
+
+    /** 内容编码，如gzip，未压缩时为空 */
+    private String contentEncoding;
+
+    /** 强校验ETag，带引号，不同编码的ETag不同 */
+    private String etag;
+}
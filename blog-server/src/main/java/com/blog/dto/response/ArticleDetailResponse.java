@@ -1,20 +1,27 @@
 package com.blog.dto.response;
 
 import com.blog.model.ArticleStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.NoArgsConstructor;
 import lombok.Data;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
 public class ArticleDetailResponse {
     private Long id;
     private String title;
     private String content;
     private String summary;
     private String coverUrl;
+    private String coverThumbnailUrl;  // 封面缩略图，用于列表卡片，未生成时同coverUrl
+    private String coverPlaceholderUrl;  // 封面模糊占位图，未生成时同coverUrl
     private Long authorId;
     private String authorName;  // 作者名称
     private Long categoryId;
@@ -26,4 +33,8 @@ public class ArticleDetailResponse {
     private LocalDateTime updateTime;
     
     private List<TagResponse> tags;  // 文章标签列表
+    private List<TocItem> toc;  // 文章目录，仅在返回渲染后的HTML时提供
+
+    @JsonIgnore
+    private String contentKey;  // 正文对象名，不返回给客户端，详情缓存中保留用于查找渲染结果
 } 
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.blog.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量导入进度事件，以NDJSON逐行返回
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ArticleImportEvent {
+    public static final String ERROR = "error";
+    public static final String PROGRESS = "progress";
+    public static final String DONE = "done";
+
+    private String type;  // error/progress/done
+    private Long line;  // 出错的行号，从1开始
+    private String message;  // 出错原因
+    private Long processed;  // 已处理行数
+    private Long imported;  // 导入成功数
+    private Long failed;  // 导入失败数
+}
@@ -0,0 +1,52 @@
+package com.blog.dto.response;
+
+import com.blog.common.response.JsonFragment;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * 列表中的文章摘要
+ * 除浏览量和封面各尺寸URL外的字段是缓存的预编码JSON片段，序列化时直接拼接进响应，结构与ArticleDetailResponse一致
+ */
+@Getter
+@AllArgsConstructor
+@Schema(implementation = ArticleDetailResponse.class)
+public class ArticleSummaryJson implements JsonSerializable {
+    private final Long id;
+    private final Integer viewCount;
+    /** 预签名URL会过期，不放入片段 */
+    private final String coverUrl;
+    private final String coverThumbnailUrl;
+    private final String coverPlaceholderUrl;
+    /** 以逗号开头的其余字段，如 ,"id":1,"title":"..." */
+    private final JsonFragment fragment;
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName("viewCount");
+        if (viewCount != null) {
+            gen.writeNumber(viewCount);
+        } else {
+            gen.writeNull();
+        }
+        gen.writeStringField("coverUrl", coverUrl);
+        gen.writeStringField("coverThumbnailUrl", coverThumbnailUrl);
+        gen.writeStringField("coverPlaceholderUrl", coverPlaceholderUrl);
+        gen.writeRaw(fragment);
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+}
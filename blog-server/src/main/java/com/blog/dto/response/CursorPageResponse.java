@@ -0,0 +1,21 @@
+package com.blog.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "游标分页响应")
+public class CursorPageResponse<T> {
+    @Schema(description = "数据列表")
+    private List<T> list;
+
+    @Schema(description = "下一页游标，没有更多数据时为空")
+    private String nextCursor;
+
+    @Schema(description = "是否还有更多数据")
+    private Boolean hasMore;
+}
@@ -0,0 +1,25 @@
+package com.blog.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 直传存储的上传凭证，客户端用PUT将文件直接发送到uploadUrl，完成后调用确认接口
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DirectUploadResponse {
+    private String uploadId;
+    private String uploadUrl;  // 预签名PUT地址
+    private Map<String, String> headers;  // PUT请求必须携带的请求头
+    private Long expireAt;  // 上传地址过期时间（毫秒时间戳）
+    private String url;  // 确认上传后的访问URL
+}
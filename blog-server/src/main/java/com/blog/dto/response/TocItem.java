@@ -0,0 +1,17 @@
+package com.blog.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 文章目录项
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TocItem {
+    private int level;  // 标题级别 1-6
+    private String id;  // 标题锚点ID
+    private String text;  // 标题文本
+}
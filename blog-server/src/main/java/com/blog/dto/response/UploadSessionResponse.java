@@ -0,0 +1,26 @@
+package com.blog.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 分片上传会话，客户端按partSize切分文件，分片可并行上传、单独重试
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UploadSessionResponse {
+    private String uploadId;
+    private Long size;  // 文件大小
+    private Integer partSize;  // 分片大小，最后一片可以更小
+    private Integer partCount;  // 分片数，分片号从1开始
+    private List<Integer> uploadedParts;  // 已上传的分片号，断点续传时跳过
+    private String url;  // 上传完成后的访问URL
+}
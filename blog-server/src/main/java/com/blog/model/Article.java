@@ -13,9 +13,9 @@ import java.time.LocalDateTime;
 public class Article {
     private Long id;
     private String title;
-    private String contentUrl;  // MinIO中的文件路径
+    private String contentKey;  // MinIO中的对象名
     private String summary;
-    private String coverUrl;    // 封面图片路径
+    private String coverKey;    // 封面图片的对象名
     private Long authorId;
     private Long categoryId;
     private ArticleStatus status;
@@ -0,0 +1,31 @@
+package com.blog.model;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * 相关文章
+ * 对应数据库表：article_related（每篇文章预先计算的前K篇相关文章）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleRelated {
+    /**
+     * 文章ID
+     */
+    private Long articleId;
+
+    /**
+     * 相关文章ID
+     */
+    private Long relatedId;
+
+    /**
+     * 相关度分数
+     */
+    private Double score;
+}
@@ -0,0 +1,31 @@
+package com.blog.model;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * 文章标签关联
+ * 对应数据库表：article_tags（关联 tags 取标签名称）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleTag {
+    /**
+     * 文章ID
+     */
+    private Long articleId;
+
+    /**
+     * 标签ID
+     */
+    private Long tagId;
+
+    /**
+     * 标签名称
+     */
+    private String tagName;
+}
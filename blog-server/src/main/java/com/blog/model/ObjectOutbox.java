@@ -0,0 +1,37 @@
+package com.blog.model;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 对象存储待办
+ * 对应数据库表：object_outbox
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ObjectOutbox {
+    /** 事务外已上传、等待元数据提交的对象，超时仍未提交时删除 */
+    public static final String STAGED = "STAGED";
+    /** 事务提交后要删除的对象 */
+    public static final String DELETE = "DELETE";
+
+    private Long id;
+
+    /**
+     * MinIO对象名称
+     */
+    private String objectName;
+
+    /**
+     * 类型：STAGED/DELETE
+     */
+    private String action;
+
+    private LocalDateTime createTime;
+}
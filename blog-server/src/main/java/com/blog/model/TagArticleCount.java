@@ -0,0 +1,23 @@
+package com.blog.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * 标签下已发布文章数
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagArticleCount {
+    /**
+     * 标签ID
+     */
+    private Long tagId;
+
+    /**
+     * 已发布文章数
+     */
+    private Long articleCount;
+}
@@ -36,9 +36,9 @@ public class User {
     private String email;
 
     /**
-     * 头像URL
+     * 头像的MinIO对象名
      */
-    private String avatarUrl;
+    private String avatarKey;
 
     /**
      * 用户角色
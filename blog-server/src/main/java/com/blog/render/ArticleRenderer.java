@@ -0,0 +1,136 @@
+package com.blog.render;
+
+import com.blog.common.util.TransactionUtils;
+import com.blog.config.ArticleCacheConfig;
+import com.blog.constant.StorageConstants;
+import com.blog.dto.response.ArticleDetailResponse;
+import com.blog.exception.Asserts;
+import com.blog.model.Article;
+import com.blog.model.ArticleStatus;
+import com.blog.repository.ArticleRepository;
+import com.blog.service.FileService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 文章渲染管线
+ * 文章发布或内容变更时在后台把markdown渲染为HTML和目录，以JSON保存在MinIO中markdown原文旁；
+ * 内容对象写入后不再修改，渲染结果按内容对象名缓存，无需失效
+ */
+@Slf4j
+@Component
+public class ArticleRenderer {
+
+    private final ArticleRepository articleRepository;
+    private final FileService fileService;
+    private final MarkdownRenderer markdownRenderer;
+    private final ObjectMapper objectMapper;
+
+    /** 内容对象名 -> 渲染结果 */
+    private final Cache<String, RenderedContent> renders;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "article-renderer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ArticleRenderer(ArticleRepository articleRepository,
+                           FileService fileService,
+                           MarkdownRenderer markdownRenderer,
+                           ObjectMapper objectMapper,
+                           ArticleCacheConfig articleCacheConfig) {
+        this.articleRepository = articleRepository;
+        this.fileService = fileService;
+        this.markdownRenderer = markdownRenderer;
+        this.objectMapper = objectMapper;
+        this.renders = Caffeine.newBuilder()
+                .maximumSize(articleCacheConfig.getRenderMaxSize())
+                .build();
+    }
+
+    /**
+     * 文章发布或内容变更后调用，事务提交后在后台渲染；未发布的文章在首次读取时渲染
+     * @param id 文章ID
+     */
+    public void onArticleChanged(Long id) {
+        TransactionUtils.afterCommit(() -> executor.submit(() -> {
+            try {
+                Article article = articleRepository.selectById(id);
+                if (article != null && article.getStatus() == ArticleStatus.PUBLISHED) {
+                    getRendered(article.getContentKey(), () -> fileService.getContent(article.getContentKey()));
+                }
+            } catch (Exception e) {
+                log.warn("Failed to render article {}: {}", id, e.getMessage());
+            }
+        }));
+    }
+
+    /**
+     * 用渲染后的HTML和目录替换详情中的markdown
+     * 渲染结果按详情中记录的正文对象名查找，与发布时的预渲染一致，不再查询数据库
+     * @param detail 文章详情
+     * @return 内容为HTML的文章详情
+     */
+    public ArticleDetailResponse toHtml(ArticleDetailResponse detail) {
+        String objectName = detail.getContentKey();
+        if (objectName == null) {
+            // 升级前写入缓存的详情没有对象名
+            Article article = articleRepository.selectById(detail.getId());
+            if (article == null) {
+                Asserts.fail("文章不存在");
+            }
+            objectName = article.getContentKey();
+        }
+        RenderedContent rendered = getRendered(objectName, detail::getContent);
+        return detail.toBuilder()
+                .content(rendered.getHtml())
+                .toc(rendered.getToc())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 获取内容对象的渲染结果，依次查找本地缓存、MinIO中已保存的结果，都没有时当场渲染并保存
+     * @param objectName 内容对象名
+     * @param markdown 需要当场渲染时提供markdown原文
+     */
+    private RenderedContent getRendered(String objectName, Supplier<String> markdown) {
+        return renders.get(objectName, key -> {
+            String renderObjectName = key + StorageConstants.RENDER_SUFFIX;
+            try {
+                byte[] stored = fileService.findContentBytes(renderObjectName);
+                if (stored != null) {
+                    return objectMapper.readValue(stored, RenderedContent.class);
+                }
+            } catch (IOException e) {
+                log.warn("Discarding unreadable render of {}: {}", key, e.getMessage());
+            }
+
+            RenderedContent rendered = markdownRenderer.render(markdown.get());
+            try {
+                fileService.putContentBytes(renderObjectName, objectMapper.writeValueAsBytes(rendered),
+                        "application/json");
+            } catch (Exception e) {
+                // 保存失败不影响本次返回，下次未命中缓存时重新渲染
+                log.warn("Failed to store render of {}: {}", key, e.getMessage());
+            }
+            return rendered;
+        });
+    }
+}
@@ -0,0 +1,91 @@
+package com.blog.render;
+
+import com.blog.dto.response.TocItem;
+import org.commonmark.Extension;
+import org.commonmark.ext.gfm.strikethrough.StrikethroughExtension;
+import org.commonmark.ext.gfm.tables.TablesExtension;
+import org.commonmark.ext.heading.anchor.IdGenerator;
+import org.commonmark.node.AbstractVisitor;
+import org.commonmark.node.Code;
+import org.commonmark.node.Heading;
+import org.commonmark.node.Link;
+import org.commonmark.node.Node;
+import org.commonmark.node.Text;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Markdown渲染器
+ * 转义原文中的HTML、过滤不安全的链接协议，并为标题生成锚点和目录
+ */
+@Component
+public class MarkdownRenderer {
+
+    private static final List<Extension> EXTENSIONS = Arrays.asList(
+            TablesExtension.create(),
+            StrikethroughExtension.create());
+
+    private final Parser parser = Parser.builder()
+            .extensions(EXTENSIONS)
+            .build();
+
+    /**
+     * 渲染markdown
+     * @param markdown markdown原文
+     * @return 安全的HTML和目录
+     */
+    public RenderedContent render(String markdown) {
+        Node document = parser.parse(markdown);
+
+        // 先按文档顺序为标题生成锚点，目录与HTML中的id保持一致
+        IdGenerator idGenerator = IdGenerator.builder().defaultId("section").build();
+        Map<Node, String> headingIds = new IdentityHashMap<>();
+        List<TocItem> toc = new ArrayList<>();
+        document.accept(new AbstractVisitor() {
+            @Override
+            public void visit(Heading heading) {
+                String text = textOf(heading);
+                String id = idGenerator.generateId(text);
+                headingIds.put(heading, id);
+                toc.add(new TocItem(heading.getLevel(), id, text));
+            }
+        });
+
+        HtmlRenderer renderer = HtmlRenderer.builder()
+                .extensions(EXTENSIONS)
+                .escapeHtml(true)
+                .sanitizeUrls(true)
+                .attributeProviderFactory(context -> (node, tagName, attributes) -> {
+                    if (node instanceof Heading) {
+                        attributes.put("id", headingIds.get(node));
+                    } else if (node instanceof Link) {
+                        attributes.put("rel", "nofollow noopener ugc");
+                    }
+                })
+                .build();
+        return new RenderedContent(renderer.render(document), toc);
+    }
+
+    private static String textOf(Node node) {
+        StringBuilder text = new StringBuilder();
+        node.accept(new AbstractVisitor() {
+            @Override
+            public void visit(Text textNode) {
+                text.append(textNode.getLiteral());
+            }
+
+            @Override
+            public void visit(Code code) {
+                text.append(code.getLiteral());
+            }
+        });
+        return text.toString().trim();
+    }
+}
@@ -0,0 +1,19 @@
+package com.blog.render;
+
+import com.blog.dto.response.TocItem;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 文章渲染结果，以JSON形式保存在MinIO中markdown原文旁
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RenderedContent {
+    private String html;
+    private List<TocItem> toc;
+}
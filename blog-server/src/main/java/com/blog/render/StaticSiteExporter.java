@@ -0,0 +1,546 @@
+package com.blog.render;
+
+import com.blog.common.response.ApiResponse;
+import com.blog.common.util.TransactionUtils;
+import com.blog.config.StaticExportConfig;
+import com.blog.dto.response.ArticleDetailResponse;
+import com.blog.dto.response.ArticleSummaryJson;
+import com.blog.dto.response.CategoryResponse;
+import com.blog.dto.response.TagResponse;
+import com.blog.model.Article;
+import com.blog.model.ArticleStatus;
+import com.blog.repository.ArticleRepository;
+import com.blog.service.ArticleService;
+import com.blog.service.CategoryService;
+import com.blog.service.TagService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 静态站点导出
+ * 把已发布文章、分类页和标签页导出为自包含的HTML和与接口结构一致的JSON，由nginx直接从磁盘提供；
+ * 变更通过Redis发布订阅通知所有节点，各节点合并一段时间内的变更后只重写受影响的页面
+ */
+@Slf4j
+@Component
+public class StaticSiteExporter implements MessageListener {
+
+    private static final String CHANGE_CHANNEL = "static:export:change";
+    private static final String ALL = "*";
+
+    private static final String ARTICLES_DIR = "articles";
+    private static final String CATEGORIES_DIR = "categories";
+    private static final String TAGS_DIR = "tags";
+
+    private static final TypeReference<ApiResponse<ArticleDetailResponse>> DETAIL_TYPE =
+            new TypeReference<ApiResponse<ArticleDetailResponse>>() {};
+    private static final TypeReference<List<ArticleDetailResponse>> SUMMARY_LIST_TYPE =
+            new TypeReference<List<ArticleDetailResponse>>() {};
+
+    /** 变更类型：文章内容或状态变化，分类或标签本身改名或删除（其下文章的页面也需重写） */
+    private enum Change {
+        ARTICLE, CATEGORY, TAG
+    }
+
+    private final ArticleService articleService;
+    private final CategoryService categoryService;
+    private final TagService tagService;
+    private final ArticleRepository articleRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final StaticExportConfig staticExportConfig;
+
+    /** 待处理的变更，由导出线程定期取出 */
+    private final Map<Change, Set<Long>> pending = new EnumMap<>(Change.class);
+    private volatile boolean fullExportPending;
+
+    /** 所有写操作都在该单线程中顺序执行 */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "static-site-exporter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Path outputDir;
+
+    public StaticSiteExporter(@Lazy ArticleService articleService,
+                              @Lazy CategoryService categoryService,
+                              @Lazy TagService tagService,
+                              ArticleRepository articleRepository,
+                              StringRedisTemplate stringRedisTemplate,
+                              RedisMessageListenerContainer listenerContainer,
+                              ObjectMapper objectMapper,
+                              StaticExportConfig staticExportConfig) {
+        this.articleService = articleService;
+        this.categoryService = categoryService;
+        this.tagService = tagService;
+        this.articleRepository = articleRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.staticExportConfig = staticExportConfig;
+        for (Change change : Change.values()) {
+            pending.put(change, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!staticExportConfig.isEnabled()) {
+            return;
+        }
+        outputDir = Files.createDirectories(Paths.get(staticExportConfig.getOutputDir()));
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANGE_CHANNEL));
+    }
+
+    /**
+     * 应用启动后在后台全量导出，修正停机期间错过的变更
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (staticExportConfig.isEnabled()) {
+            fullExportPending = true;
+            flush();
+        }
+    }
+
+    /**
+     * 文章新增、修改、删除或状态变更后调用
+     * @param id 文章ID
+     */
+    public void onArticleChanged(Long id) {
+        publish(Change.ARTICLE + ":" + id);
+    }
+
+    /**
+     * 分类改名或删除后调用，重写分类页及其下所有文章
+     * @param id 分类ID
+     */
+    public void onCategoryChanged(Long id) {
+        publish(Change.CATEGORY + ":" + id);
+    }
+
+    /**
+     * 标签改名或删除后调用，重写标签页及其下所有文章
+     * @param id 标签ID
+     */
+    public void onTagChanged(Long id) {
+        publish(Change.TAG + ":" + id);
+    }
+
+    /**
+     * 影响范围无法确定的变更（如作者改名）后调用，全量重新导出
+     */
+    public void onAllChanged() {
+        publish(ALL);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        enqueue(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 定期写出合并后的变更
+     */
+    @Scheduled(fixedDelayString = "#{@staticExportConfig.flushIntervalMs}")
+    public void flush() {
+        if (outputDir != null) {
+            executor.submit(() -> {
+                try {
+                    exportPending();
+                } catch (Exception e) {
+                    log.error("Error exporting static site", e);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private void publish(String change) {
+        if (!staticExportConfig.isEnabled()) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            try {
+                stringRedisTemplate.convertAndSend(CHANGE_CHANNEL, change);
+            } catch (Exception e) {
+                log.warn("Failed to broadcast static export change {}, exporting locally: {}", change, e.getMessage());
+                enqueue(change);
+            }
+        });
+    }
+
+    private void enqueue(String change) {
+        if (ALL.equals(change)) {
+            fullExportPending = true;
+            return;
+        }
+        try {
+            int separator = change.indexOf(':');
+            pending.get(Change.valueOf(change.substring(0, separator)))
+                    .add(Long.valueOf(change.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            log.warn("Invalid static export change: {}", change);
+        }
+    }
+
+    private Set<Long> drain(Change change) {
+        Set<Long> ids = new HashSet<>();
+        Iterator<Long> iterator = pending.get(change).iterator();
+        while (iterator.hasNext()) {
+            ids.add(iterator.next());
+            iterator.remove();
+        }
+        return ids;
+    }
+
+    private void exportPending() throws IOException {
+        if (fullExportPending) {
+            fullExportPending = false;
+            Stream.of(Change.values()).forEach(this::drain);
+            exportAll();
+            return;
+        }
+
+        Set<Long> articleIds = drain(Change.ARTICLE);
+        Set<Long> categoryIds = new HashSet<>();
+        Set<Long> tagIds = new HashSet<>();
+        Map<Long, CategoryResponse> categories = null;
+        Map<Long, TagResponse> tags = null;
+
+        // 分类或标签本身变化时，其下文章页面显示的名称也要更新
+        Set<Long> changedCategories = drain(Change.CATEGORY);
+        if (!changedCategories.isEmpty()) {
+            categoryIds.addAll(changedCategories);
+            for (Long categoryId : changedCategories) {
+                articleRepository.selectPublishedList(categoryId, null).forEach(article -> articleIds.add(article.getId()));
+            }
+        }
+        Set<Long> changedTags = drain(Change.TAG);
+        if (!changedTags.isEmpty()) {
+            tagIds.addAll(changedTags);
+            for (Long tagId : changedTags) {
+                articleRepository.selectPublishedList(null, tagId).forEach(article -> articleIds.add(article.getId()));
+            }
+        }
+        if (articleIds.isEmpty() && categoryIds.isEmpty() && tagIds.isEmpty()) {
+            return;
+        }
+
+        // 文章所在的新旧分类和标签页都受影响，旧归属从上次导出的JSON中读取
+        for (Long id : articleIds) {
+            ArticleDetailResponse previous = readExportedArticle(id);
+            if (previous != null) {
+                collectLabels(previous, categoryIds, tagIds);
+            }
+            ArticleDetailResponse current = exportArticle(id);
+            if (current != null) {
+                collectLabels(current, categoryIds, tagIds);
+            }
+        }
+
+        if (!categoryIds.isEmpty()) {
+            categories = categoryService.getAllCategories().stream()
+                    .collect(Collectors.toMap(CategoryResponse::getId, category -> category));
+        }
+        for (Long categoryId : categoryIds) {
+            CategoryResponse category = categories.get(categoryId);
+            Path dir = outputDir.resolve(CATEGORIES_DIR).resolve(String.valueOf(categoryId));
+            if (category == null) {
+                deleteRecursively(dir);
+            } else {
+                exportListing(dir, category.getName(), category.getDescription(),
+                        articleService.getPublishedList(categoryId, null));
+            }
+        }
+
+        if (!tagIds.isEmpty()) {
+            tags = tagService.getAllTags().stream()
+                    .collect(Collectors.toMap(TagResponse::getId, tag -> tag));
+        }
+        for (Long tagId : tagIds) {
+            TagResponse tag = tags.get(tagId);
+            Path dir = outputDir.resolve(TAGS_DIR).resolve(String.valueOf(tagId));
+            if (tag == null) {
+                deleteRecursively(dir);
+            } else {
+                exportListing(dir, tag.getName(), null, articleService.getPublishedList(null, tagId));
+            }
+        }
+        log.debug("Exported {} articles, {} categories and {} tags",
+                articleIds.size(), categoryIds.size(), tagIds.size());
+    }
+
+    private void exportAll() throws IOException {
+        long startTime = System.currentTimeMillis();
+        Set<String> published = new HashSet<>();
+        for (Article article : articleRepository.selectPublishedViewCounts()) {
+            if (exportArticle(article.getId()) != null) {
+                published.add(String.valueOf(article.getId()));
+            }
+        }
+        removeStale(outputDir.resolve(ARTICLES_DIR), published);
+
+        Set<String> categoryIds = new HashSet<>();
+        for (CategoryResponse category : categoryService.getAllCategories()) {
+            categoryIds.add(String.valueOf(category.getId()));
+            exportListing(outputDir.resolve(CATEGORIES_DIR).resolve(String.valueOf(category.getId())),
+                    category.getName(), category.getDescription(),
+                    articleService.getPublishedList(category.getId(), null));
+        }
+        removeStale(outputDir.resolve(CATEGORIES_DIR), categoryIds);
+
+        Set<String> tagIds = new HashSet<>();
+        for (TagResponse tag : tagService.getAllTags()) {
+            tagIds.add(String.valueOf(tag.getId()));
+            exportListing(outputDir.resolve(TAGS_DIR).resolve(String.valueOf(tag.getId())),
+                    tag.getName(), null, articleService.getPublishedList(null, tag.getId()));
+        }
+        removeStale(outputDir.resolve(TAGS_DIR), tagIds);
+
+        log.info("Exported static site with {} articles in {} ms",
+                published.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 导出单篇文章，未发布或已删除的文章移除已导出的页面
+     * @return 导出的文章详情，文章不再公开时返回null
+     */
+    private ArticleDetailResponse exportArticle(Long id) throws IOException {
+        Path dir = outputDir.resolve(ARTICLES_DIR);
+        Article article = articleRepository.selectById(id);
+        if (article == null || article.getStatus() != ArticleStatus.PUBLISHED) {
+            Files.deleteIfExists(dir.resolve(id + ".json"));
+            Files.deleteIfExists(dir.resolve(id + ".html"));
+            return null;
+        }
+        // 浏览量随时变化，静态页面中不保留
+        ArticleDetailResponse detail = articleService.getRenderedById(id).toBuilder()
+                .viewCount(null)
+                .build();
+        writeAtomically(dir.resolve(id + ".json"), objectMapper.writeValueAsBytes(ApiResponse.success(detail)));
+        writeAtomically(dir.resolve(id + ".html"), articlePage(detail).getBytes(StandardCharsets.UTF_8));
+        return detail;
+    }
+
+    /**
+     * 导出分类或标签下的文章列表，按页拆分为 {页码}.json 和 {页码}.html
+     */
+    private void exportListing(Path dir, String name, String description,
+                               List<ArticleSummaryJson> summaries) throws IOException {
+        int pageSize = staticExportConfig.getPageSize();
+        int pages = Math.max((summaries.size() + pageSize - 1) / pageSize, 1);
+        Set<String> pageNames = new HashSet<>();
+        for (int pageNum = 1; pageNum <= pages; pageNum++) {
+            List<ArticleSummaryJson> pageItems = summaries.subList((pageNum - 1) * pageSize,
+                    Math.min(pageNum * pageSize, summaries.size()));
+            byte[] items = objectMapper.writeValueAsBytes(pageItems);
+            ListingPage page = new ListingPage(name, description, pageNum, pageSize, summaries.size(), pages,
+                    objectMapper.readValue(items, SUMMARY_LIST_TYPE));
+            page.getList().forEach(item -> item.setViewCount(null));
+
+            writeAtomically(dir.resolve(pageNum + ".json"), objectMapper.writeValueAsBytes(ApiResponse.success(page)));
+            writeAtomically(dir.resolve(pageNum + ".html"), listingPage(page).getBytes(StandardCharsets.UTF_8));
+            pageNames.add(pageNum + ".json");
+            pageNames.add(pageNum + ".html");
+        }
+        // 文章减少后多出的页
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.collect(Collectors.toList())) {
+                if (!pageNames.contains(file.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private ArticleDetailResponse readExportedArticle(Long id) {
+        Path file = outputDir.resolve(ARTICLES_DIR).resolve(id + ".json");
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(Files.readAllBytes(file), DETAIL_TYPE).getData();
+        } catch (IOException e) {
+            log.warn("Failed to read exported article {}: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void collectLabels(ArticleDetailResponse detail, Set<Long> categoryIds, Set<Long> tagIds) {
+        if (detail.getCategoryId() != null) {
+            categoryIds.add(detail.getCategoryId());
+        }
+        if (detail.getTags() != null) {
+            detail.getTags().forEach(tag -> tagIds.add(tag.getId()));
+        }
+    }
+
+    /**
+     * 先写临时文件再原子替换，nginx不会读到写了一半的页面
+     */
+    private static void writeAtomically(Path file, byte[] content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), ".export-", ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 删除目录下不在保留集合中的文章文件或分类、标签目录
+     */
+    private static void removeStale(Path dir, Set<String> keep) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.collect(Collectors.toList())) {
+                String name = file.getFileName().toString();
+                int dot = name.lastIndexOf('.');
+                if (!keep.contains(dot > 0 ? name.substring(0, dot) : name)) {
+                    deleteRecursively(file);
+                }
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static String articlePage(ArticleDetailResponse detail) {
+        StringBuilder body = new StringBuilder();
+        body.append("<article>\n<h1>").append(escape(detail.getTitle())).append("</h1>\n");
+        body.append("<p class=\"meta\">").append(escape(detail.getAuthorName()));
+        if (detail.getCreateTime() != null) {
+            body.append(" · ").append(detail.getCreateTime().toLocalDate());
+        }
+        if (detail.getCategoryId() != null) {
+            body.append(" · <a href=\"../").append(CATEGORIES_DIR).append('/').append(detail.getCategoryId())
+                    .append("/1.html\">").append(escape(detail.getCategoryName())).append("</a>");
+        }
+        body.append("</p>\n");
+        if (detail.getTags() != null && !detail.getTags().isEmpty()) {
+            body.append("<p class=\"tags\">");
+            for (TagResponse tag : detail.getTags()) {
+                body.append("<a href=\"../").append(TAGS_DIR).append('/').append(tag.getId())
+                        .append("/1.html\">#").append(escape(tag.getName())).append("</a> ");
+            }
+            body.append("</p>\n");
+        }
+        if (detail.getToc() != null && detail.getToc().size() > 1) {
+            body.append("<nav class=\"toc\"><ul>\n");
+            detail.getToc().forEach(item -> body.append("<li class=\"toc-").append(item.getLevel())
+                    .append("\"><a href=\"#").append(escape(item.getId())).append("\">")
+                    .append(escape(item.getText())).append("</a></li>\n"));
+            body.append("</ul></nav>\n");
+        }
+        // 正文已在渲染时转义和过滤
+        body.append(detail.getContent()).append("</article>\n");
+        return page(detail.getTitle(), body.toString());
+    }
+
+    private static String listingPage(ListingPage listing) {
+        StringBuilder body = new StringBuilder();
+        body.append("<h1>").append(escape(listing.getName())).append("</h1>\n");
+        if (listing.getDescription() != null) {
+            body.append("<p class=\"meta\">").append(escape(listing.getDescription())).append("</p>\n");
+        }
+        body.append("<ul class=\"articles\">\n");
+        for (ArticleDetailResponse item : listing.getList()) {
+            body.append("<li><a href=\"../../").append(ARTICLES_DIR).append('/').append(item.getId())
+                    .append(".html\">").append(escape(item.getTitle())).append("</a>");
+            if (item.getSummary() != null) {
+                body.append("<p>").append(escape(item.getSummary())).append("</p>");
+            }
+            body.append("</li>\n");
+        }
+        body.append("</ul>\n<nav class=\"pager\">");
+        if (listing.getPageNum() > 1) {
+            body.append("<a href=\"").append(listing.getPageNum() - 1).append(".html\">上一页</a> ");
+        }
+        body.append(listing.getPageNum()).append(" / ").append(listing.getPages());
+        if (listing.getPageNum() < listing.getPages()) {
+            body.append(" <a href=\"").append(listing.getPageNum() + 1).append(".html\">下一页</a>");
+        }
+        body.append("</nav>\n");
+        return page(listing.getName(), body.toString());
+    }
+
+    private static String page(String title, String body) {
+        return "<!DOCTYPE html>\n<html lang=\"zh-CN\">\n<head>\n<meta charset=\"UTF-8\">\n"
+                + "<meta name=\"viewport\" content=\"width=device-width, initial-scale=1\">\n"
+                + "<title>" + escape(title) + "</title>\n"
+                + "<style>body{max-width:760px;margin:0 auto;padding:16px;font-family:sans-serif;line-height:1.7}"
+                + "pre{overflow:auto;background:#f6f8fa;padding:12px}table{border-collapse:collapse}"
+                + "td,th{border:1px solid #ddd;padding:4px 8px}.meta,.tags{color:#666}"
+                + ".toc-3,.toc-4,.toc-5,.toc-6{margin-left:1.5em}</style>\n"
+                + "</head>\n<body>\n" + body + "</body>\n</html>\n";
+    }
+
+    private static String escape(String value) {
+        return value != null ? HtmlUtils.htmlEscape(value, StandardCharsets.UTF_8.name()) : "";
+    }
+
+    /**
+     * 分类或标签页数据，列表结构与文章列表接口一致
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ListingPage {
+        private String name;
+        private String description;
+        private int pageNum;
+        private int pageSize;
+        private long total;
+        private int pages;
+        private List<ArticleDetailResponse> list;
+    }
+}
@@ -1,10 +1,17 @@
 package com.blog.repository;
 
+import com.blog.dto.request.ArticleCursor;
 import com.blog.model.Article;
+import com.blog.model.ArticleRelated;
+import com.blog.model.ArticleTag;
+import com.blog.model.TagArticleCount;
 import com.blog.dto.response.TagResponse;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface ArticleRepository {
@@ -20,8 +27,22 @@ public interface ArticleRepository {
                            @Param("keyword") String keyword);
     
     List<TagResponse> selectArticleTags(Long articleId);
+
+    /**
+     * 批量查询多篇文章的标签
+     * @param articleIds 文章ID列表
+     * @return 文章标签关联列表
+     */
+    List<ArticleTag> selectTagsByArticleIds(@Param("articleIds") List<Long> articleIds);
     
     int updateViewCount(@Param("id") Long id);
+
+    /**
+     * 批量累加文章浏览量
+     * @param deltas 文章ID -> 浏览量增量
+     * @return 影响行数
+     */
+    int batchIncrementViewCount(@Param("deltas") Map<Long, Long> deltas);
     
     int updateTop(@Param("id") Long id, @Param("isTop") Boolean isTop);
     
@@ -40,16 +61,162 @@ public interface ArticleRepository {
      * @param tagIds 标签ID列表
      * @return 影响行数
      */
-    int insertArticleTags(@Param("articleId") Long articleId, @Param("tagIds") List<Long> tagIds);
+    int insertArticleTags(@Param("articleId") Long articleId, @Param("tagIds") Collection<Long> tagIds);
+
+    /**
+     * 删除多篇文章与多个标签之间的关联
+     * @param articleIds 文章ID列表
+     * @param tagIds 标签ID列表
+     * @return 删除行数
+     */
+    int deleteArticleTagPairs(@Param("articleIds") Collection<Long> articleIds,
+                              @Param("tagIds") Collection<Long> tagIds);
+
+    /**
+     * 为多篇文章添加多个标签，已存在的关联跳过
+     * @param articleIds 文章ID列表
+     * @param tagIds 标签ID列表
+     * @return 新增行数
+     */
+    int insertArticleTagPairs(@Param("articleIds") Collection<Long> articleIds,
+                              @Param("tagIds") Collection<Long> tagIds);
+
+    /**
+     * 更新多篇文章的修改时间，用于只修改关联表的操作
+     * @param ids 文章ID列表
+     * @return 影响行数
+     */
+    int touchUpdateTime(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 多行插入文章，回填自增ID
+     * @param articles 文章列表
+     * @return 插入行数
+     */
+    int insertBatch(@Param("articles") List<Article> articles);
+
+    /**
+     * 多行插入多篇文章的标签关联
+     * @param articleTags 文章标签关联列表
+     * @return 插入行数
+     */
+    int insertArticleTagsBatch(@Param("articleTags") List<ArticleTag> articleTags);
 
     List<Article> selectHotArticles(@Param("limit") int limit);
+
+    /**
+     * 根据ID列表批量查询文章
+     * @param ids 文章ID列表
+     * @return 文章列表
+     */
+    List<Article> selectByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * 查询所有已发布文章的ID和浏览量，用于初始化热门排行
+     * @return 文章列表（仅包含id和viewCount）
+     */
+    List<Article> selectPublishedViewCounts();
+
+    /**
+     * 按ID顺序分批查询文章内容对象名（含已删除文章），用于清理无引用的内容
+     * @param afterId 上一批最后的文章ID
+     * @param limit 每批数量
+     * @return 文章列表（仅包含id和contentKey）
+     */
+    List<Article> selectContentKeysAfter(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    /**
+     * 查询已发布文章，按创建时间倒序，用于静态导出
+     * @param categoryId 分类ID（可选）
+     * @param tagId 标签ID（可选）
+     * @return 文章列表
+     */
+    List<Article> selectPublishedList(@Param("categoryId") Long categoryId, @Param("tagId") Long tagId);
+
+    /**
+     * 查询指定时间之后有变更的文章（包含已删除文章），用于全文索引追赶
+     * @param since 起始时间
+     * @return 文章列表
+     */
+    List<Article> selectUpdatedSince(@Param("since") LocalDateTime since);
     
-    List<Article> selectRecommendedArticles(
-            @Param("articleId") Long articleId,
-            @Param("categoryId") Long categoryId,
-            @Param("tagIds") List<Long> tagIds,
-            @Param("limit") int limit
-    );
+    /**
+     * 按预先计算的相关度查询相关文章
+     * @param articleId 文章ID
+     * @param limit 获取数量
+     * @return 已发布的相关文章，按相关度降序
+     */
+    List<Article> selectRelatedArticles(@Param("articleId") Long articleId, @Param("limit") int limit);
+
+    /**
+     * 批量查询多篇文章当前的相关文章记录
+     * @param articleIds 文章ID列表
+     * @return 相关文章记录
+     */
+    List<ArticleRelated> selectRelatedByArticleIds(@Param("articleIds") Collection<Long> articleIds);
+
+    /**
+     * 查询将指定文章列为相关文章的文章ID
+     * @param relatedId 相关文章ID
+     * @return 文章ID列表
+     */
+    List<Long> selectArticleIdsByRelatedId(@Param("relatedId") Long relatedId);
+
+    /**
+     * 删除文章的所有相关文章记录
+     * @param articleId 文章ID
+     * @return 影响行数
+     */
+    int deleteRelated(@Param("articleId") Long articleId);
+
+    /**
+     * 批量插入文章的相关文章记录
+     * @param articleId 文章ID
+     * @param related 相关文章记录
+     * @return 影响行数
+     */
+    int insertRelated(@Param("articleId") Long articleId, @Param("related") List<ArticleRelated> related);
+
+    /**
+     * 统计相关文章记录数，用于判断是否需要初始化
+     * @return 记录数
+     */
+    long countRelated();
+
+    /**
+     * 召回共享标签的已发布文章，按共享标签数降序
+     * @param articleId 当前文章ID（排除）
+     * @param tagIds 标签ID列表
+     * @param limit 获取数量
+     * @return 文章ID列表
+     */
+    List<Long> selectIdsSharingTags(@Param("articleId") Long articleId,
+                                    @Param("tagIds") Collection<Long> tagIds,
+                                    @Param("limit") int limit);
+
+    /**
+     * 召回同分类的最新已发布文章
+     * @param articleId 当前文章ID（排除）
+     * @param categoryId 分类ID
+     * @param limit 获取数量
+     * @return 文章ID列表
+     */
+    List<Long> selectIdsInCategory(@Param("articleId") Long articleId,
+                                   @Param("categoryId") Long categoryId,
+                                   @Param("limit") int limit);
+
+    /**
+     * 统计各标签下的已发布文章数
+     * @param tagIds 标签ID列表
+     * @return 标签文章数
+     */
+    List<TagArticleCount> selectTagArticleCounts(@Param("tagIds") Collection<Long> tagIds);
+
+    /**
+     * 统计已发布文章数
+     * @return 文章数
+     */
+    long countPublished();
     
     List<Article> selectByAuthorId(@Param("authorId") Long authorId);
     
@@ -60,4 +227,34 @@ public interface ArticleRepository {
             @Param("sortField") String sortField,
             @Param("isDesc") boolean isDesc
     );
-} 
\ No newline at end of file
+
+    /**
+     * 游标分页查询文章列表
+     * 按 (is_top, create_time, id) 或 (view_count, id) 从游标位置向后定位，不使用偏移量
+     * @param cursor 上一页最后一条的排序键，为空时从第一条开始
+     * @param limit 获取数量
+     * @return 文章列表
+     */
+    List<Article> selectListByCursor(
+            @Param("categoryId") Long categoryId,
+            @Param("tagId") Long tagId,
+            @Param("keyword") String keyword,
+            @Param("sortField") String sortField,
+            @Param("isDesc") boolean isDesc,
+            @Param("cursor") ArticleCursor cursor,
+            @Param("limit") int limit
+    );
+
+    /**
+     * 游标分页查询用户的文章列表，按 (create_time, id) 降序
+     * @param authorId 作者ID
+     * @param cursor 上一页最后一条的排序键，为空时从第一条开始
+     * @param limit 获取数量
+     * @return 文章列表
+     */
+    List<Article> selectByAuthorIdByCursor(
+            @Param("authorId") Long authorId,
+            @Param("cursor") ArticleCursor cursor,
+            @Param("limit") int limit
+    );
+} 
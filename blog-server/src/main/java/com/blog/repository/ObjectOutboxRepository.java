@@ -0,0 +1,27 @@
+package com.blog.repository;
+
+import com.blog.model.ObjectOutbox;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface ObjectOutboxRepository {
+    int insert(ObjectOutbox outbox);
+
+    int deleteById(Long id);
+
+    int deleteByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * 查询创建超过指定时长的待办，截止时间按数据库时钟计算，不受应用节点时钟偏差影响
+     * @param action 类型
+     * @param minutes 创建后经过的分钟数
+     * @param limit 数量
+     * @return 待办列表
+     */
+    List<ObjectOutbox> selectDue(@Param("action") String action,
+                                 @Param("minutes") long minutes,
+                                 @Param("limit") int limit);
+}
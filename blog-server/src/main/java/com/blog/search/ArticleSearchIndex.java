@@ -0,0 +1,388 @@
+package com.blog.search;
+
+import com.blog.common.util.TransactionUtils;
+import com.blog.config.SearchConfig;
+import com.blog.model.Article;
+import com.blog.model.ArticleTag;
+import com.blog.repository.ArticleRepository;
+import com.blog.service.FileService;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.*;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 文章全文索引
+ * 基于Lucene对标题、摘要和正文建立倒排索引，中文按CJK二元分词；
+ * 索引持久化在本地磁盘，文章变更通过Redis发布订阅通知所有节点增量更新，
+ * 重启时只追赶停机期间变更的文章
+ */
+@Slf4j
+@Component
+public class ArticleSearchIndex implements MessageListener {
+
+    private static final String REINDEX_CHANNEL = "article:search:reindex";
+    private static final String WATERMARK_KEY = "watermark";
+    private static final long CATCH_UP_MARGIN_MS = 5 * 60 * 1000L;
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_SUMMARY = "summary";
+    private static final String FIELD_CONTENT = "content";
+    private static final String FIELD_CATEGORY = "categoryId";
+    private static final String FIELD_TAG = "tagId";
+
+    private final ArticleRepository articleRepository;
+    private final FileService fileService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final SearchConfig searchConfig;
+
+    private final Analyzer analyzer = new CJKAnalyzer();
+    /** 所有索引写操作都在该单线程中顺序执行 */
+    private final ExecutorService indexExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "article-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private Long watermark;
+    private volatile boolean ready;
+
+    public ArticleSearchIndex(ArticleRepository articleRepository,
+                              FileService fileService,
+                              StringRedisTemplate stringRedisTemplate,
+                              RedisMessageListenerContainer listenerContainer,
+                              SearchConfig searchConfig) {
+        this.articleRepository = articleRepository;
+        this.fileService = fileService;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.searchConfig = searchConfig;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SearchResult {
+        private final List<Long> ids;
+        private final long total;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!searchConfig.isEnabled()) {
+            return;
+        }
+        directory = FSDirectory.open(Files.createDirectories(Paths.get(searchConfig.getIndexDir())));
+        if (DirectoryReader.indexExists(directory)) {
+            String value = SegmentInfos.readLatestCommit(directory).getUserData().get(WATERMARK_KEY);
+            watermark = value != null ? Long.valueOf(value) : null;
+        }
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+        listenerContainer.addMessageListener(this, new ChannelTopic(REINDEX_CHANNEL));
+    }
+
+    /**
+     * 应用启动后在后台加载索引：无索引时全量重建，否则只追赶停机期间的变更
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!searchConfig.isEnabled()) {
+            return;
+        }
+        indexExecutor.submit(() -> {
+            try {
+                if (watermark == null) {
+                    rebuild();
+                } else {
+                    catchUp(watermark);
+                }
+                ready = true;
+            } catch (Exception e) {
+                log.error("Error loading article search index, falling back to database search", e);
+            }
+        });
+    }
+
+    /**
+     * 全文检索文章，结果按相关度排序
+     * @param keyword 关键词
+     * @param categoryId 分类ID（可选）
+     * @param tagId 标签ID（可选）
+     * @param pageNum 页码
+     * @param pageSize 每页大小
+     * @return 检索结果，索引不可用或关键词含单个汉字时返回null
+     */
+    public SearchResult search(String keyword, Long categoryId, Long tagId, int pageNum, int pageSize) {
+        // 索引只收录二元词，单个汉字无法命中，交由数据库模糊查询
+        if (!ready || hasSingleCjkChar(keyword)) {
+            return null;
+        }
+        QueryBuilder queryBuilder = new QueryBuilder(analyzer);
+        BooleanQuery.Builder textQuery = new BooleanQuery.Builder();
+        addFieldQuery(textQuery, queryBuilder, FIELD_TITLE, keyword, 3f);
+        addFieldQuery(textQuery, queryBuilder, FIELD_SUMMARY, keyword, 2f);
+        addFieldQuery(textQuery, queryBuilder, FIELD_CONTENT, keyword, 1f);
+        BooleanQuery text = textQuery.build();
+        if (text.clauses().isEmpty()) {
+            return new SearchResult(new ArrayList<>(), 0);
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder().add(text, BooleanClause.Occur.MUST);
+        if (categoryId != null) {
+            query.add(LongPoint.newExactQuery(FIELD_CATEGORY, categoryId), BooleanClause.Occur.FILTER);
+        }
+        if (tagId != null) {
+            query.add(new TermQuery(new Term(FIELD_TAG, String.valueOf(tagId))), BooleanClause.Occur.FILTER);
+        }
+
+        int start = (Math.max(pageNum, 1) - 1) * pageSize;
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopScoreDocCollector collector = TopScoreDocCollector.create(start + pageSize, Integer.MAX_VALUE);
+                searcher.search(query.build(), collector);
+                TopDocs topDocs = collector.topDocs(start, pageSize);
+                List<Long> ids = new ArrayList<>(topDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    ids.add(Long.valueOf(searcher.doc(scoreDoc.doc).get(FIELD_ID)));
+                }
+                return new SearchResult(ids, collector.getTotalHits());
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            log.error("Error searching article index", e);
+            return null;
+        }
+    }
+
+    /**
+     * 文章新增、修改、删除或状态变更后调用，事务提交后通知所有节点更新索引
+     * @param id 文章ID
+     */
+    public void onArticleChanged(Long id) {
+        if (!searchConfig.isEnabled()) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            try {
+                stringRedisTemplate.convertAndSend(REINDEX_CHANNEL, String.valueOf(id));
+            } catch (Exception e) {
+                log.warn("Failed to broadcast reindex of article {}, reindexing locally: {}", id, e.getMessage());
+                submitReindex(id);
+            }
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            submitReindex(Long.valueOf(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (NumberFormatException e) {
+            log.warn("Invalid article reindex message: {}", message);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "#{@searchConfig.commitIntervalMs}")
+    public void commit() {
+        if (writer != null) {
+            indexExecutor.submit(this::commitNow);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        indexExecutor.shutdown();
+        indexExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        if (writer != null) {
+            commitNow();
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        }
+    }
+
+    private void submitReindex(Long id) {
+        indexExecutor.submit(() -> {
+            try {
+                Article article = articleRepository.selectById(id);
+                if (article == null) {
+                    writer.deleteDocuments(new Term(FIELD_ID, String.valueOf(id)));
+                } else {
+                    indexArticles(Collections.singletonList(article));
+                }
+                searcherManager.maybeRefresh();
+            } catch (Exception e) {
+                log.error("Error reindexing article {}", id, e);
+            }
+        });
+    }
+
+    private void rebuild() throws IOException {
+        long startTime = System.currentTimeMillis();
+        writer.deleteAll();
+        List<Article> articles = articleRepository.selectList(null, null);
+        for (int i = 0; i < articles.size(); i += REBUILD_BATCH_SIZE) {
+            indexArticles(articles.subList(i, Math.min(i + REBUILD_BATCH_SIZE, articles.size())));
+        }
+        commitWithWatermark(startTime);
+        searcherManager.maybeRefresh();
+        log.info("Rebuilt article search index with {} articles in {} ms",
+                articles.size(), System.currentTimeMillis() - startTime);
+    }
+
+    private void catchUp(long since) throws IOException {
+        long startTime = System.currentTimeMillis();
+        LocalDateTime from = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(since - CATCH_UP_MARGIN_MS), ZoneId.systemDefault());
+        List<Article> changed = articleRepository.selectUpdatedSince(from);
+        List<Article> alive = new ArrayList<>();
+        for (Article article : changed) {
+            if (Boolean.TRUE.equals(article.getIsDeleted())) {
+                writer.deleteDocuments(new Term(FIELD_ID, String.valueOf(article.getId())));
+            } else {
+                alive.add(article);
+            }
+        }
+        for (int i = 0; i < alive.size(); i += REBUILD_BATCH_SIZE) {
+            indexArticles(alive.subList(i, Math.min(i + REBUILD_BATCH_SIZE, alive.size())));
+        }
+        commitWithWatermark(startTime);
+        searcherManager.maybeRefresh();
+        log.info("Article search index caught up with {} changed articles", changed.size());
+    }
+
+    private void indexArticles(List<Article> articles) throws IOException {
+        Map<Long, List<Long>> tagMap = articleRepository.selectTagsByArticleIds(articles.stream()
+                        .map(Article::getId)
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.groupingBy(ArticleTag::getArticleId,
+                        Collectors.mapping(ArticleTag::getTagId, Collectors.toList())));
+        for (Article article : articles) {
+            writer.updateDocument(new Term(FIELD_ID, String.valueOf(article.getId())),
+                    toDocument(article, loadContent(article), tagMap.getOrDefault(article.getId(), new ArrayList<>())));
+        }
+    }
+
+    private Document toDocument(Article article, String content, List<Long> tagIds) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, String.valueOf(article.getId()), Field.Store.YES));
+        document.add(new TextField(FIELD_TITLE, nullToEmpty(article.getTitle()), Field.Store.NO));
+        document.add(new TextField(FIELD_SUMMARY, nullToEmpty(article.getSummary()), Field.Store.NO));
+        document.add(new TextField(FIELD_CONTENT, nullToEmpty(content), Field.Store.NO));
+        if (article.getCategoryId() != null) {
+            document.add(new LongPoint(FIELD_CATEGORY, article.getCategoryId()));
+        }
+        for (Long tagId : tagIds) {
+            document.add(new StringField(FIELD_TAG, String.valueOf(tagId), Field.Store.NO));
+        }
+        return document;
+    }
+
+    private String loadContent(Article article) {
+        try {
+            return fileService.getContent(article.getContentKey());
+        } catch (Exception e) {
+            // 正文不可用时仍按标题和摘要建立索引
+            log.warn("Failed to load content of article {} for indexing: {}", article.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void addFieldQuery(BooleanQuery.Builder builder, QueryBuilder queryBuilder,
+                               String field, String keyword, float boost) {
+        Query query = queryBuilder.createBooleanQuery(field, keyword, BooleanClause.Occur.MUST);
+        if (query != null) {
+            builder.add(new BoostQuery(query, boost), BooleanClause.Occur.SHOULD);
+        }
+    }
+
+    /**
+     * 关键词中是否存在前后都不是CJK字符的单个CJK字符
+     */
+    private static boolean hasSingleCjkChar(String keyword) {
+        int run = 0;
+        for (int i = 0; i < keyword.length(); ) {
+            int codePoint = keyword.codePointAt(i);
+            if (isCjk(codePoint)) {
+                run++;
+            } else {
+                if (run == 1) {
+                    return true;
+                }
+                run = 0;
+            }
+            i += Character.charCount(codePoint);
+        }
+        return run == 1;
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    private void commitNow() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                commitWithWatermark(System.currentTimeMillis());
+            }
+        } catch (IOException e) {
+            log.error("Error committing article search index", e);
+        }
+    }
+
+    private void commitWithWatermark(long time) throws IOException {
+        writer.setLiveCommitData(Collections.singletonMap(WATERMARK_KEY, String.valueOf(time)).entrySet());
+        writer.commit();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
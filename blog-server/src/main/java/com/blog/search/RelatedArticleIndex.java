@@ -0,0 +1,321 @@
+package com.blog.search;
+
+import com.blog.cache.RedisLock;
+import com.blog.common.util.TransactionUtils;
+import com.blog.config.RelatedArticleConfig;
+import com.blog.model.Article;
+import com.blog.model.ArticleRelated;
+import com.blog.model.ArticleStatus;
+import com.blog.model.ArticleTag;
+import com.blog.repository.ArticleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 相关文章索引
+ * 为每篇已发布文章预先计算前K篇相关文章并存入article_related表，读取时只需一次索引查询；
+ * 相关度 = 按标签稀有度加权的Jaccard重合度 + 同分类加分 + 新近度。
+ * 文章的标签、分类或状态变更后增量重算该文章及受影响的相邻文章，并定期全量重算以刷新新近度
+ */
+@Slf4j
+@Component
+public class RelatedArticleIndex {
+
+    private static final String REBUILD_LOCK_KEY = "article:related:rebuild:lock";
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final ArticleRepository articleRepository;
+    private final RedisLock redisLock;
+    private final RelatedArticleConfig relatedArticleConfig;
+    private final TransactionTemplate transactionTemplate;
+
+    /** 所有重算操作都在该单线程中顺序执行 */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "related-article-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RelatedArticleIndex(ArticleRepository articleRepository,
+                               RedisLock redisLock,
+                               RelatedArticleConfig relatedArticleConfig,
+                               TransactionTemplate transactionTemplate) {
+        this.articleRepository = articleRepository;
+        this.redisLock = redisLock;
+        this.relatedArticleConfig = relatedArticleConfig;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * 应用启动后，相关文章表为空时在后台初始化
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.submit(() -> {
+            try {
+                if (articleRepository.countRelated() == 0 && articleRepository.countPublished() > 0) {
+                    rebuildWithLock();
+                }
+            } catch (Exception e) {
+                log.error("Error initializing related article index", e);
+            }
+        });
+    }
+
+    /**
+     * 文章新增、修改、删除或状态变更后调用，事务提交后在后台重算
+     * @param id 文章ID
+     */
+    public void onArticleChanged(Long id) {
+        TransactionUtils.afterCommit(() -> executor.submit(() -> {
+            try {
+                refresh(id);
+            } catch (Exception e) {
+                log.warn("Failed to refresh related articles for article {}: {}", id, e.getMessage());
+            }
+        }));
+    }
+
+    /**
+     * 定期全量重算，多节点间通过锁保证每个周期只执行一次
+     */
+    @Scheduled(initialDelayString = "#{@relatedArticleConfig.rebuildIntervalMs}",
+            fixedDelayString = "#{@relatedArticleConfig.rebuildIntervalMs}")
+    public void scheduledRebuild() {
+        executor.submit(() -> {
+            try {
+                rebuildWithLock();
+            } catch (Exception e) {
+                log.error("Error rebuilding related article index", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private void rebuildWithLock() {
+        // 锁保持整个周期，调度相位不同的节点不会在同一周期内重复重建
+        if (!redisLock.tryAcquireForInterval(REBUILD_LOCK_KEY, relatedArticleConfig.getRebuildIntervalMs())) {
+            return;
+        }
+        List<Long> ids = articleRepository.selectPublishedViewCounts().stream()
+                .map(Article::getId)
+                .collect(Collectors.toList());
+        for (int i = 0; i < ids.size(); i += REBUILD_BATCH_SIZE) {
+            articleRepository.selectByIds(ids.subList(i, Math.min(i + REBUILD_BATCH_SIZE, ids.size())))
+                    .forEach(this::recompute);
+        }
+        log.info("Rebuilt related article index for {} published articles", ids.size());
+    }
+
+    /**
+     * 重算文章自身的相关文章，并把它合并进候选文章的列表；
+     * 原先引用它但不再相关的文章需要补位，整体重算
+     */
+    private void refresh(Long id) {
+        Set<Long> referrers = new HashSet<>(articleRepository.selectArticleIdsByRelatedId(id));
+        Article article = articleRepository.selectById(id);
+        if (article == null || article.getStatus() != ArticleStatus.PUBLISHED) {
+            saveTopK(id, Collections.emptyList());
+            for (Long referrer : referrers) {
+                recompute(articleRepository.selectById(referrer));
+            }
+            return;
+        }
+
+        Features features = loadFeatures(article);
+        saveTopK(id, features.rank(id));
+
+        Map<Long, List<ArticleRelated>> neighborRows = features.candidates.isEmpty()
+                ? Collections.emptyMap()
+                : articleRepository.selectRelatedByArticleIds(features.candidates.keySet()).stream()
+                        .collect(Collectors.groupingBy(ArticleRelated::getArticleId));
+        for (Long neighborId : features.candidates.keySet()) {
+            referrers.remove(neighborId);
+            List<ArticleRelated> rows = neighborRows.getOrDefault(neighborId, new ArrayList<>());
+            if (!mergeInto(neighborId, rows, id, features.score(neighborId, id))) {
+                recompute(features.candidates.get(neighborId));
+            }
+        }
+        for (Long referrer : referrers) {
+            recompute(articleRepository.selectById(referrer));
+        }
+    }
+
+    /**
+     * 把新分数合并进相邻文章的前K列表
+     * @return 是否合并成功；分数下降可能导致该文章掉出前K而需要补位时返回false
+     */
+    private boolean mergeInto(Long articleId, List<ArticleRelated> rows, Long relatedId, double score) {
+        ArticleRelated existing = rows.stream()
+                .filter(row -> row.getRelatedId().equals(relatedId))
+                .findFirst()
+                .orElse(null);
+        if (existing != null && score < existing.getScore()) {
+            return false;
+        }
+        if (existing == null && score <= 0) {
+            return true;
+        }
+        int topK = relatedArticleConfig.getTopK();
+        double minScore = rows.stream().mapToDouble(ArticleRelated::getScore).min().orElse(0);
+        if (existing == null && rows.size() >= topK && score <= minScore) {
+            return true;
+        }
+        List<ArticleRelated> merged = rows.stream()
+                .filter(row -> !row.getRelatedId().equals(relatedId))
+                .collect(Collectors.toList());
+        merged.add(new ArticleRelated(articleId, relatedId, score));
+        merged.sort(Comparator.comparing(ArticleRelated::getScore).reversed());
+        saveTopK(articleId, merged.subList(0, Math.min(topK, merged.size())));
+        return true;
+    }
+
+    private void recompute(Article article) {
+        if (article == null) {
+            return;
+        }
+        if (article.getStatus() != ArticleStatus.PUBLISHED) {
+            saveTopK(article.getId(), Collections.emptyList());
+            return;
+        }
+        saveTopK(article.getId(), loadFeatures(article).rank(article.getId()));
+    }
+
+    private void saveTopK(Long articleId, List<ArticleRelated> related) {
+        transactionTemplate.executeWithoutResult(status -> {
+            articleRepository.deleteRelated(articleId);
+            if (!related.isEmpty()) {
+                articleRepository.insertRelated(articleId, related);
+            }
+        });
+    }
+
+    /**
+     * 召回候选文章并加载计算相关度所需的分类、标签和标签文章数
+     */
+    private Features loadFeatures(Article article) {
+        Long id = article.getId();
+        int limit = relatedArticleConfig.getCandidateLimit();
+        Set<Long> tagIds = articleRepository.selectTagsByArticleIds(Collections.singletonList(id)).stream()
+                .map(ArticleTag::getTagId)
+                .collect(Collectors.toSet());
+
+        Set<Long> candidateIds = new LinkedHashSet<>();
+        if (!tagIds.isEmpty()) {
+            candidateIds.addAll(articleRepository.selectIdsSharingTags(id, tagIds, limit));
+        }
+        if (article.getCategoryId() != null) {
+            candidateIds.addAll(articleRepository.selectIdsInCategory(id, article.getCategoryId(), limit));
+        }
+
+        Features features = new Features();
+        features.articles.put(id, article);
+        features.tags.put(id, tagIds);
+        if (candidateIds.isEmpty()) {
+            return features;
+        }
+
+        List<Long> ids = new ArrayList<>(candidateIds);
+        articleRepository.selectByIds(ids).forEach(candidate -> {
+            features.articles.put(candidate.getId(), candidate);
+            features.candidates.put(candidate.getId(), candidate);
+        });
+        articleRepository.selectTagsByArticleIds(ids).forEach(tag -> features.tags
+                .computeIfAbsent(tag.getArticleId(), key -> new HashSet<>())
+                .add(tag.getTagId()));
+
+        Set<Long> allTagIds = features.tags.values().stream()
+                .flatMap(Set::stream)
+                .collect(Collectors.toSet());
+        if (!allTagIds.isEmpty()) {
+            features.totalPublished = Math.max(articleRepository.countPublished(), 1);
+            articleRepository.selectTagArticleCounts(allTagIds)
+                    .forEach(count -> features.tagCounts.put(count.getTagId(), count.getArticleCount()));
+        }
+        return features;
+    }
+
+    /**
+     * 一次重算涉及的文章特征
+     */
+    private class Features {
+        private final Map<Long, Article> articles = new HashMap<>();
+        private final Map<Long, Article> candidates = new LinkedHashMap<>();
+        private final Map<Long, Set<Long>> tags = new HashMap<>();
+        private final Map<Long, Long> tagCounts = new HashMap<>();
+        private long totalPublished = 1;
+
+        /**
+         * 对候选文章打分，取前K名
+         */
+        List<ArticleRelated> rank(Long articleId) {
+            return candidates.keySet().stream()
+                    .map(candidateId -> new ArticleRelated(articleId, candidateId, score(articleId, candidateId)))
+                    .filter(related -> related.getScore() > 0)
+                    .sorted(Comparator.comparing(ArticleRelated::getScore).reversed())
+                    .limit(relatedArticleConfig.getTopK())
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * 计算在文章from下推荐文章to的相关度
+         */
+        double score(Long from, Long to) {
+            Article source = articles.get(from);
+            Article target = articles.get(to);
+            if (source == null || target == null) {
+                return 0;
+            }
+            double score = weightedJaccard(tags.getOrDefault(from, Collections.emptySet()),
+                    tags.getOrDefault(to, Collections.emptySet()));
+            if (source.getCategoryId() != null && source.getCategoryId().equals(target.getCategoryId())) {
+                score += relatedArticleConfig.getCategoryBoost();
+            }
+            if (score > 0 && target.getCreateTime() != null) {
+                double ageDays = Math.max(Duration.between(target.getCreateTime(), LocalDateTime.now()).toHours(), 0) / 24.0;
+                score += relatedArticleConfig.getRecencyWeight()
+                        * Math.pow(0.5, ageDays / relatedArticleConfig.getRecencyHalfLifeDays());
+            }
+            return score;
+        }
+
+        /**
+         * 标签按逆文档频率加权，越少见的标签重合越能说明相关
+         */
+        private double weightedJaccard(Set<Long> a, Set<Long> b) {
+            if (a.isEmpty() || b.isEmpty()) {
+                return 0;
+            }
+            double intersection = 0;
+            double union = 0;
+            Set<Long> all = new HashSet<>(a);
+            all.addAll(b);
+            for (Long tagId : all) {
+                double weight = Math.log(1 + (double) totalPublished / Math.max(tagCounts.getOrDefault(tagId, 1L), 1L));
+                union += weight;
+                if (a.contains(tagId) && b.contains(tagId)) {
+                    intersection += weight;
+                }
+            }
+            return union > 0 ? intersection / union : 0;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.blog.service;
+
+import com.blog.dto.response.ArticleImportEvent;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+public interface ArticleImportService {
+    /**
+     * 流式批量导入文章，作者为当前用户
+     * @param input NDJSON输入，每行一篇文章
+     * @param listener 接收出错行和进度事件
+     * @return 导入结果汇总
+     */
+    ArticleImportEvent importArticles(InputStream input, Consumer<ArticleImportEvent> listener);
+}
@@ -2,8 +2,12 @@ package com.blog.service;
 
 import com.blog.model.Article;
 import com.blog.dto.request.ArticleCreateRequest;
+import com.blog.dto.request.ArticleRetagRequest;
 import com.blog.dto.request.ArticleUpdateRequest;
+import com.blog.dto.response.ArticleContentResponse;
 import com.blog.dto.response.ArticleDetailResponse;
+import com.blog.dto.response.ArticleSummaryJson;
+import com.blog.dto.response.CursorPageResponse;
 import com.github.pagehelper.PageInfo;
 import java.util.List;
 
@@ -22,6 +26,31 @@ public interface ArticleService {
      */
     ArticleDetailResponse getById(Long id);
 
+    /**
+     * 获取文章详情，内容为发布时预先渲染的HTML
+     * @param id 文章ID
+     * @return 文章详情，附带文章目录
+     */
+    ArticleDetailResponse getRenderedById(Long id);
+
+    /**
+     * 获取全部已发布文章，按创建时间倒序
+     * @param categoryId 分类ID（可选）
+     * @param tagId 标签ID（可选）
+     * @return 文章摘要列表
+     */
+    List<ArticleSummaryJson> getPublishedList(Long categoryId, Long tagId);
+
+    /**
+     * 获取文章正文的原始markdown
+     * @param id 文章ID
+     * @param acceptGzip 客户端是否接受gzip编码
+     * @param ifNoneMatch 请求的If-None-Match，包含内容的ETag时不打开内容
+     * @return 正文内容，接受gzip时优先返回预压缩版本；内容以流的形式返回，写出后须关闭；
+     *         客户端缓存未过时body为空，etag为客户端持有的版本
+     */
+    ArticleContentResponse getContent(Long id, boolean acceptGzip, String ifNoneMatch);
+
     /**
      * 更新文章
      * @param id 文章ID
@@ -44,7 +73,7 @@ public interface ArticleService {
      * @param keyword 关键词（可选）
      * @return 文章列表分页信息
      */
-    PageInfo<ArticleDetailResponse> getList(int pageNum, int pageSize, Long categoryId, String keyword);
+    PageInfo<ArticleSummaryJson> getList(int pageNum, int pageSize, Long categoryId, String keyword);
 
     /**
      * 更新文章状态
@@ -60,6 +89,12 @@ public interface ArticleService {
      */
     void setTop(Long id, boolean isTop);
 
+    /**
+     * 批量修改文章标签，先移除后添加
+     * @param request 文章ID列表和要添加、移除的标签
+     */
+    void retag(ArticleRetagRequest request);
+
     /**
      * 增加文章浏览量
      * @param id 文章ID
@@ -71,7 +106,14 @@ public interface ArticleService {
      * @param limit 获取数量
      * @return 热门文章列表
      */
-    List<ArticleDetailResponse> getHotArticles(int limit);
+    List<ArticleSummaryJson> getHotArticles(int limit);
+
+    /**
+     * 获取趋势文章列表（近期浏览量按时间衰减）
+     * @param limit 获取数量
+     * @return 趋势文章列表
+     */
+    List<ArticleSummaryJson> getTrendingArticles(int limit);
 
     /**
      * 获取推荐文章列表
@@ -79,7 +121,7 @@ public interface ArticleService {
      * @param limit 获取数量
      * @return 推荐文章列表
      */
-    List<ArticleDetailResponse> getRecommendedArticles(Long articleId, int limit);
+    List<ArticleSummaryJson> getRecommendedArticles(Long articleId, int limit);
 
     /**
      * 获取用户的文章列表
@@ -88,7 +130,7 @@ public interface ArticleService {
      * @param pageSize 每页大小
      * @return 用户文章列表分页信息
      */
-    PageInfo<ArticleDetailResponse> getUserArticles(Long userId, int pageNum, int pageSize);
+    PageInfo<ArticleSummaryJson> getUserArticles(Long userId, int pageNum, int pageSize);
 
     /**
      * 检查当前用户是否为文章作者
@@ -108,6 +150,29 @@ public interface ArticleService {
      * @param sortDirection 排序方向
      * @return 文章列表分页信息
      */
-    PageInfo<ArticleDetailResponse> getList(int pageNum, int pageSize, Long categoryId, 
+    PageInfo<ArticleSummaryJson> getList(int pageNum, int pageSize, Long categoryId, 
             Long tagId, String keyword, String sortField, String sortDirection);
-} 
\ No newline at end of file
+
+    /**
+     * 游标分页获取文章列表
+     * @param cursor 上一页返回的游标，为空时获取第一页
+     * @param pageSize 每页大小
+     * @param categoryId 分类ID（可选）
+     * @param tagId 标签ID（可选）
+     * @param keyword 关键词（可选）
+     * @param sortField 排序字段
+     * @param sortDirection 排序方向
+     * @return 文章列表及下一页游标
+     */
+    CursorPageResponse<ArticleSummaryJson> getListByCursor(String cursor, int pageSize, Long categoryId,
+            Long tagId, String keyword, String sortField, String sortDirection);
+
+    /**
+     * 游标分页获取用户的文章列表
+     * @param userId 用户ID
+     * @param cursor 上一页返回的游标，为空时获取第一页
+     * @param pageSize 每页大小
+     * @return 用户文章列表及下一页游标
+     */
+    CursorPageResponse<ArticleSummaryJson> getUserArticlesByCursor(Long userId, String cursor, int pageSize);
+} 
@@ -0,0 +1,20 @@
+package com.blog.service;
+
+import com.blog.dto.request.DirectUploadRequest;
+import com.blog.dto.response.DirectUploadResponse;
+
+public interface DirectUploadService {
+    /**
+     * 校验文件信息并签发直传存储的上传地址
+     * @param request 文件信息
+     * @return 上传凭证
+     */
+    DirectUploadResponse create(DirectUploadRequest request);
+
+    /**
+     * 确认上传，校验存储中的对象与申请时一致后登记
+     * @param uploadId 上传ID
+     * @return 包含访问URL的上传结果
+     */
+    DirectUploadResponse complete(String uploadId);
+}
@@ -1,5 +1,7 @@
 package com.blog.service;
 
+import com.blog.storage.ContentStream;
+import com.blog.storage.ImageVariant;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface FileService {
@@ -11,6 +13,14 @@ public interface FileService {
      */
     String uploadImage(MultipartFile file, String directory);
 
+    /**
+     * 校验图片类型和大小，不同目录的大小限制不同
+     * @param contentType 图片类型
+     * @param size 图片大小（字节）
+     * @param directory 存储目录
+     */
+    void validateImage(String contentType, long size, String directory);
+
     /**
      * 上传文件
      * @param file 文件
@@ -20,13 +30,35 @@ public interface FileService {
     String uploadFile(MultipartFile file, String directory);
 
     /**
-     * 上传文本内容
+     * 生成新文件的对象名称，用于在上传前记录对象名
+     * @param directory 存储目录
+     * @param originalFilename 原始文件名
+     * @return 对象名称
+     */
+    String newObjectName(String directory, String originalFilename);
+
+    /**
+     * 以指定对象名上传文件
+     * @param file 文件
+     * @param objectName 对象名称
+     */
+    void uploadFileAs(MultipartFile file, String objectName);
+
+    /**
+     * 按内容的SHA-256摘要保存文本，相同内容已存在时跳过上传
      * @param content 文本内容
      * @param directory 存储目录
-     * @param filename 文件名
-     * @return 文件访问URL
+     * @return 对象名称
+     */
+    String uploadContentByHash(String content, String directory);
+
+    /**
+     * 计算文本按内容摘要保存时的对象名称
+     * @param content 文本内容
+     * @param directory 存储目录
+     * @return 对象名称
      */
-    String uploadContent(String content, String directory, String filename);
+    String getContentObjectName(String content, String directory);
 
     /**
      * 获取文件内容
@@ -35,6 +67,64 @@ public interface FileService {
      */
     String getContent(String objectName);
 
+    /**
+     * 获取文件的原始字节
+     * @param objectName 对象名称
+     * @return 文件内容
+     */
+    byte[] getContentBytes(String objectName);
+
+    /**
+     * 打开对象用于流式读取，优先使用本地磁盘缓存，未命中时直接转发MinIO的响应流
+     * @param objectName 对象名称
+     * @return 对象内容，对象不存在时返回null；使用后须关闭
+     */
+    ContentStream openContent(String objectName);
+
+    /**
+     * 获取文件的原始字节
+     * @param objectName 对象名称
+     * @return 文件内容，对象不存在时返回null
+     */
+    byte[] findContentBytes(String objectName);
+
+    /**
+     * 以指定对象名保存内容，用于保存由原始内容派生的文件
+     * @param objectName 对象名称
+     * @param content 文件内容
+     * @param contentType 内容类型
+     */
+    void putContentBytes(String objectName, byte[] content, String contentType);
+
+    /**
+     * 获取对象的访问URL，预签名URL在过期前缓存复用
+     * @param objectName 对象名称
+     * @return 预签名URL，对象名称为null时返回null
+     */
+    String getUrl(String objectName);
+
+    /**
+     * 获取当前签名周期的开始时间，同一周期内返回的预签名URL在周期结束前都有效
+     * 带预签名URL的响应把周期计入ETag，跨周期重新验证时返回新的URL
+     * @return 周期开始的毫秒时间戳
+     */
+    long getSigningEpochStart();
+
+    /**
+     * 获取图片指定尺寸版本的访问URL，衍生版本在上传后异步生成
+     * @param objectName 原图对象名称
+     * @param variant 衍生版本
+     * @return 预签名URL，衍生版本尚未生成时返回原图URL，对象名称为null时返回null
+     */
+    String getImageUrl(String objectName, ImageVariant variant);
+
+    /**
+     * 从文件访问URL中解析对象名称，用于接收客户端提交的URL
+     * @param url 文件访问URL或对象名称
+     * @return 对象名称
+     */
+    String getObjectName(String url);
+
     /**
      * 删除文件
      * @param objectName 对象名称
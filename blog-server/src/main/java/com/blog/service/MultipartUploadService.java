@@ -0,0 +1,44 @@
+package com.blog.service;
+
+import com.blog.dto.request.UploadSessionCreateRequest;
+import com.blog.dto.response.UploadSessionResponse;
+
+import java.io.InputStream;
+
+public interface MultipartUploadService {
+    /**
+     * 创建分片上传会话
+     * @param request 文件信息
+     * @return 上传会话，包含分片大小和分片数
+     */
+    UploadSessionResponse create(UploadSessionCreateRequest request);
+
+    /**
+     * 获取上传会话，用于断点续传
+     * @param uploadId 上传ID
+     * @return 上传会话，包含已上传的分片号
+     */
+    UploadSessionResponse get(String uploadId);
+
+    /**
+     * 上传一个分片，重复上传同一分片时覆盖
+     * @param uploadId 上传ID
+     * @param partNumber 分片号，从1开始
+     * @param input 分片数据
+     * @param length 分片长度
+     */
+    void uploadPart(String uploadId, int partNumber, InputStream input, long length);
+
+    /**
+     * 合并全部分片，完成上传
+     * @param uploadId 上传ID
+     * @return 包含访问URL的上传会话
+     */
+    UploadSessionResponse complete(String uploadId);
+
+    /**
+     * 中止上传，释放已上传的分片
+     * @param uploadId 上传ID
+     */
+    void abort(String uploadId);
+}
@@ -0,0 +1,323 @@
+package com.blog.service.impl;
+
+import com.blog.cache.EtagRegistry;
+import com.blog.cache.HotArticleRanking;
+import com.blog.cache.PageCountCache;
+import com.blog.common.util.SecurityUtils;
+import com.blog.config.ArticleImportConfig;
+import com.blog.constant.StorageConstants;
+import com.blog.dto.request.ArticleImportRequest;
+import com.blog.dto.response.ArticleImportEvent;
+import com.blog.model.Article;
+import com.blog.model.ArticleStatus;
+import com.blog.model.ArticleTag;
+import com.blog.model.Category;
+import com.blog.model.Tag;
+import com.blog.render.ArticleRenderer;
+import com.blog.render.StaticSiteExporter;
+import com.blog.repository.ArticleRepository;
+import com.blog.repository.CategoryRepository;
+import com.blog.repository.TagRepository;
+import com.blog.search.ArticleSearchIndex;
+import com.blog.search.RelatedArticleIndex;
+import com.blog.service.ArticleImportService;
+import com.blog.service.FileService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 文章批量导入
+ * 逐行读取NDJSON，正文在线程池中并行上传，每凑满一批后用多行INSERT写入文章和标签关联；
+ * 同时持有的正文不超过一批，整体导入不会把请求体读入内存
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArticleImportServiceImpl implements ArticleImportService {
+
+    /** readLine的返回值 */
+    private static final int LINE_OK = 0;
+    private static final int LINE_TOO_LONG = 1;
+    private static final int LINE_EOF = -1;
+
+    private final ArticleRepository articleRepository;
+    private final CategoryRepository categoryRepository;
+    private final TagRepository tagRepository;
+    private final FileService fileService;
+    private final PageCountCache pageCountCache;
+    private final EtagRegistry etagRegistry;
+    private final HotArticleRanking hotArticleRanking;
+    private final ArticleSearchIndex articleSearchIndex;
+    private final RelatedArticleIndex relatedArticleIndex;
+    private final ArticleRenderer articleRenderer;
+    private final StaticSiteExporter staticSiteExporter;
+    private final ArticleImportConfig articleImportConfig;
+    private final ExecutorService articleImportExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    /**
+     * 已上传正文、等待插入的一行
+     */
+    @AllArgsConstructor
+    private static class PendingRow {
+        private final long line;
+        private final Article article;
+        private final List<Long> tagIds;
+        private final Future<String> contentKey;
+    }
+
+    /**
+     * 一次导入的状态
+     */
+    private class ImportContext {
+        private final Long authorId = SecurityUtils.getCurrentUserId();
+        private final Set<Long> categoryIds = categoryRepository.selectAll().stream()
+                .map(Category::getId)
+                .collect(Collectors.toSet());
+        private final Set<Long> tagIds = tagRepository.selectAll().stream()
+                .map(Tag::getId)
+                .collect(Collectors.toSet());
+        private final Consumer<ArticleImportEvent> listener;
+        private final List<PendingRow> batch = new ArrayList<>();
+        private long processed;
+        private long imported;
+        private long failed;
+
+        ImportContext(Consumer<ArticleImportEvent> listener) {
+            this.listener = listener;
+        }
+
+        void fail(long line, String message) {
+            failed++;
+            listener.accept(ArticleImportEvent.builder()
+                    .type(ArticleImportEvent.ERROR)
+                    .line(line)
+                    .message(message)
+                    .build());
+        }
+
+        ArticleImportEvent summary(String type) {
+            return ArticleImportEvent.builder()
+                    .type(type)
+                    .processed(processed)
+                    .imported(imported)
+                    .failed(failed)
+                    .build();
+        }
+    }
+
+    @Override
+    public ArticleImportEvent importArticles(InputStream input, Consumer<ArticleImportEvent> listener) {
+        ImportContext context = new ImportContext(listener);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            StringBuilder line = new StringBuilder();
+            long lineNumber = 0;
+            int status;
+            while ((status = readLine(reader, line)) != LINE_EOF) {
+                lineNumber++;
+                if (status == LINE_TOO_LONG) {
+                    context.processed++;
+                    context.fail(lineNumber, "单行长度超出限制");
+                } else if (line.length() > 0 && !isBlank(line)) {
+                    context.processed++;
+                    accept(context, lineNumber, line.toString());
+                }
+                if (context.batch.size() >= articleImportConfig.getBatchSize()) {
+                    flush(context);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Article import aborted after {} lines: {}", context.processed, e.getMessage());
+            throw new UncheckedIOException(e);
+        } finally {
+            // 读取中断时也要落库已上传的行，避免MinIO中留下无主对象
+            flush(context);
+        }
+        ArticleImportEvent summary = context.summary(ArticleImportEvent.DONE);
+        log.info("Imported {} articles, {} failed", context.imported, context.failed);
+        listener.accept(summary);
+        return summary;
+    }
+
+    /**
+     * 解析并校验一行，通过后提交正文上传
+     */
+    private void accept(ImportContext context, long lineNumber, String line) {
+        ArticleImportRequest request;
+        try {
+            request = objectMapper.readValue(line, ArticleImportRequest.class);
+        } catch (JsonProcessingException e) {
+            context.fail(lineNumber, "JSON格式错误: " + e.getOriginalMessage());
+            return;
+        }
+        Set<ConstraintViolation<ArticleImportRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            context.fail(lineNumber, violations.iterator().next().getMessage());
+            return;
+        }
+        if (request.getCategoryId() != null && !context.categoryIds.contains(request.getCategoryId())) {
+            context.fail(lineNumber, "分类不存在: " + request.getCategoryId());
+            return;
+        }
+        List<Long> tagIds = request.getTagIds() != null
+                ? request.getTagIds().stream().distinct().collect(Collectors.toList())
+                : Collections.emptyList();
+        for (Long tagId : tagIds) {
+            if (!context.tagIds.contains(tagId)) {
+                context.fail(lineNumber, "标签不存在: " + tagId);
+                return;
+            }
+        }
+
+        Article article = Article.builder()
+                .title(request.getTitle())
+                .summary(request.getSummary())
+                .authorId(context.authorId)
+                .categoryId(request.getCategoryId())
+                .status(request.getStatus() != null ? ArticleStatus.valueOf(request.getStatus()) : ArticleStatus.DRAFT)
+                .viewCount(0)
+                .isTop(false)
+                .isDeleted(false)
+                .createTime(request.getCreateTime() != null ? request.getCreateTime() : LocalDateTime.now())
+                .build();
+        String content = request.getContent();
+        Future<String> contentKey = articleImportExecutor.submit(() -> fileService.uploadContentByHash(
+                content,
+                StorageConstants.ARTICLE_CONTENT_DIR));
+        context.batch.add(new PendingRow(lineNumber, article, tagIds, contentKey));
+    }
+
+    /**
+     * 等待本批正文上传完成后插入，多行插入失败时逐行重试以定位出错的行
+     */
+    private void flush(ImportContext context) {
+        if (context.batch.isEmpty()) {
+            return;
+        }
+        List<PendingRow> uploaded = new ArrayList<>(context.batch.size());
+        for (PendingRow row : context.batch) {
+            try {
+                row.article.setContentKey(row.contentKey.get());
+                uploaded.add(row);
+            } catch (ExecutionException e) {
+                context.fail(row.line, e.getCause() != null ? e.getCause().getMessage() : "内容上传失败");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                context.fail(row.line, "导入已中断");
+            }
+        }
+        context.batch.clear();
+
+        if (!uploaded.isEmpty()) {
+            try {
+                insert(uploaded);
+                context.imported += uploaded.size();
+            } catch (Exception e) {
+                log.warn("Batch insert of {} imported articles failed, retrying row by row: {}",
+                        uploaded.size(), e.getMessage());
+                for (PendingRow row : uploaded) {
+                    try {
+                        row.article.setId(null);
+                        insert(Collections.singletonList(row));
+                        context.imported++;
+                    } catch (Exception rowError) {
+                        // 正文按摘要命名可能被其他文章共用，不在此删除，由ContentSweeper清理
+                        context.fail(row.line, "文章保存失败");
+                    }
+                }
+            }
+        }
+        context.listener.accept(context.summary(ArticleImportEvent.PROGRESS));
+    }
+
+    private void insert(List<PendingRow> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            articleRepository.insertBatch(rows.stream()
+                    .map(row -> row.article)
+                    .collect(Collectors.toList()));
+            List<ArticleTag> articleTags = new ArrayList<>();
+            for (PendingRow row : rows) {
+                row.tagIds.forEach(tagId -> articleTags.add(ArticleTag.builder()
+                        .articleId(row.article.getId())
+                        .tagId(tagId)
+                        .build()));
+            }
+            if (!articleTags.isEmpty()) {
+                articleRepository.insertArticleTagsBatch(articleTags);
+            }
+
+            for (PendingRow row : rows) {
+                Long id = row.article.getId();
+                articleSearchIndex.onArticleChanged(id);
+                if (row.article.getStatus() == ArticleStatus.PUBLISHED) {
+                    relatedArticleIndex.onArticleChanged(id);
+                    hotArticleRanking.onPublished(id, 0);
+                    articleRenderer.onArticleChanged(id);
+                    staticSiteExporter.onArticleChanged(id);
+                }
+            }
+            pageCountCache.invalidate(PageCountCache.ARTICLE);
+            etagRegistry.bump(EtagRegistry.ARTICLE_LIST);
+        });
+    }
+
+    /**
+     * 读取一行到缓冲区，超出长度限制的行跳过剩余部分
+     */
+    private int readLine(BufferedReader reader, StringBuilder line) throws IOException {
+        line.setLength(0);
+        int maxLength = articleImportConfig.getMaxLineLength();
+        boolean tooLong = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (c == '\n') {
+                return tooLong ? LINE_TOO_LONG : LINE_OK;
+            }
+            if (tooLong || c == '\r') {
+                continue;
+            }
+            if (line.length() >= maxLength) {
+                tooLong = true;
+                line.setLength(0);
+                continue;
+            }
+            line.append((char) c);
+        }
+        if (tooLong) {
+            return LINE_TOO_LONG;
+        }
+        return line.length() > 0 ? LINE_OK : LINE_EOF;
+    }
+
+    private static boolean isBlank(CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isWhitespace(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
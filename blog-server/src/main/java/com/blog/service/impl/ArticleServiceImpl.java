@@ -1,66 +1,125 @@
 package com.blog.service.impl;
 
+import com.blog.cache.ArticleDetailCache;
+import com.blog.cache.ArticleJsonCache;
+import com.blog.cache.EtagRegistry;
+import com.blog.cache.HotArticleRanking;
+import com.blog.cache.PageCountCache;
+import com.blog.common.response.CountedPageInfo;
+import com.blog.cache.ViewCountBuffer;
 import com.blog.constant.StorageConstants;
+import com.blog.common.util.HashUtils;
+import com.blog.common.util.ParallelLookup;
 import com.blog.common.util.SecurityUtils;
+import com.blog.config.ArticleDetailConfig;
+import com.blog.search.ArticleSearchIndex;
+import com.blog.search.RelatedArticleIndex;
+import com.blog.render.ArticleRenderer;
+import com.blog.render.StaticSiteExporter;
 import com.blog.model.Article;
+import com.blog.model.ArticleTag;
 import com.blog.model.ArticleStatus;
 import com.blog.dto.request.ArticleCreateRequest;
+import com.blog.dto.request.ArticleRetagRequest;
 import com.blog.dto.request.ArticleUpdateRequest;
+import com.blog.dto.request.ArticleCursor;
+import com.blog.dto.response.ArticleContentResponse;
 import com.blog.dto.response.ArticleDetailResponse;
+import com.blog.dto.response.ArticleSummaryJson;
+import com.blog.dto.response.CursorPageResponse;
 import com.blog.dto.response.TagResponse;
 import com.blog.exception.Asserts;
 import com.blog.service.ArticleService;
 import com.blog.repository.ArticleRepository;
 import com.blog.repository.UserRepository;
 import com.blog.repository.CategoryRepository;
+import com.blog.repository.TagRepository;
 import com.blog.model.User;
 import com.blog.model.Category;
+import com.blog.model.Tag;
 import com.blog.service.FileService;
+import com.blog.storage.ContentStream;
+import com.blog.storage.ImageVariant;
+import com.blog.storage.ObjectOutboxProcessor;
+import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import com.github.pagehelper.PageHelper;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.pagehelper.PageInfo;
+import io.micrometer.core.instrument.MeterRegistry;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class ArticleServiceImpl implements ArticleService {
+
+    private static final long HOT_ARTICLES_CACHE_SECONDS = 10;
     
     private final ArticleRepository articleRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
+    private final TagRepository tagRepository;
     private final FileService fileService;
+    private final ArticleDetailCache articleDetailCache;
+    private final ArticleJsonCache articleJsonCache;
+    private final EtagRegistry etagRegistry;
+    private final ViewCountBuffer viewCountBuffer;
+    private final HotArticleRanking hotArticleRanking;
+    private final ArticleSearchIndex articleSearchIndex;
+    private final RelatedArticleIndex relatedArticleIndex;
+    private final ArticleRenderer articleRenderer;
+    private final StaticSiteExporter staticSiteExporter;
+    private final PageCountCache pageCountCache;
+    private final ArticleDetailConfig articleDetailConfig;
+    private final ExecutorService articleDetailExecutor;
+    private final MeterRegistry meterRegistry;
+    private final ObjectOutboxProcessor objectOutboxProcessor;
+    private final TransactionTemplate transactionTemplate;
+
+    /** 热门文章列表短期缓存，键为 榜单:数量 */
+    private final Cache<String, List<ArticleSummaryJson>> hotArticlesCache = Caffeine.newBuilder()
+            .maximumSize(64)
+            .expireAfterWrite(HOT_ARTICLES_CACHE_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    /**
+     * 已登记待办并上传的对象
+     */
+    @AllArgsConstructor
+    private static class StagedObject {
+        private final Long stageId;
+        private final String objectName;
+    }
 
     // ========== 核心CRUD方法 ==========
     @Override
-    @Transactional
     public Article create(ArticleCreateRequest request) {
-        // 1. 保存文章内容到MinIO
-        String contentUrl = fileService.uploadContent(
+        // 1. 在事务之外上传，数据库连接不等待MinIO；文章内容相同只保存一份
+        String contentKey = fileService.uploadContentByHash(
             request.getContent(),
-            StorageConstants.ARTICLE_CONTENT_DIR,
-            UUID.randomUUID().toString() + ".md"
+            StorageConstants.ARTICLE_CONTENT_DIR
         );
         
-        // 2. 如果有封面图片，上传到MinIO
-        String coverUrl = null;
-        if (request.getCover() != null && !request.getCover().isEmpty()) {
-            coverUrl = fileService.uploadFile(
-                request.getCover(),
-                StorageConstants.ARTICLE_IMAGES_DIR
-            );
-        }
+        // 2. 如果有封面图片，登记待办后上传到MinIO
+        StagedObject cover = uploadCover(request.getCover());
         
-        // 3. 保存文章信息到数据库
+        // 3. 保存文章信息到数据库，同一事务中确认封面
         Article article = Article.builder()
                 .title(request.getTitle())
-                .contentUrl(contentUrl)
-                .coverUrl(coverUrl)
+                .contentKey(contentKey)
+                .coverKey(cover != null ? cover.objectName : null)
                 .summary(request.getSummary())
                 .authorId(SecurityUtils.getCurrentUserId())
                 .categoryId(request.getCategoryId())
@@ -69,39 +128,81 @@ public class ArticleServiceImpl implements ArticleService {
                 .isTop(false)
                 .isDeleted(false)
                 .build();
-                
-        if (articleRepository.insert(article) <= 0) {
-            Asserts.fail("文章创建失败");
-        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (articleRepository.insert(article) <= 0) {
+                Asserts.fail("文章创建失败");
+            }
+            if (cover != null) {
+                objectOutboxProcessor.commitStaged(cover.stageId);
+            }
+            articleSearchIndex.onArticleChanged(article.getId());
+            relatedArticleIndex.onArticleChanged(article.getId());
+            pageCountCache.invalidate(PageCountCache.ARTICLE);
+            etagRegistry.bump(EtagRegistry.ARTICLE_LIST);
+        });
         return article;
     }
     
     @Override
     public ArticleDetailResponse getById(Long id) {
+        ArticleDetailResponse detail = articleDetailCache.get(id, this::loadDetail);
+        
+        // 叠加尚未写入数据库的浏览量
+        long pendingViews = viewCountBuffer.getPending(id);
+        if (pendingViews == 0) {
+            return detail;
+        }
+        return detail.toBuilder()
+                .viewCount(detail.getViewCount() + (int) pendingViews)
+                .build();
+    }
+
+    @Override
+    public ArticleDetailResponse getRenderedById(Long id) {
+        return articleRenderer.toHtml(getById(id));
+    }
+
+    private ArticleDetailResponse loadDetail(Long id) {
         // 1. 获取文章基本信息
         Article article = articleRepository.selectById(id);
         if (article == null) {
             Asserts.fail("文章不存在");
         }
         
-        // 2. 获取文章内容
-        String content = fileService.getContent(getObjectNameFromUrl(article.getContentUrl()));
-        
-        // 3. 获取分类信息
-        String categoryName = null;
-        if (article.getCategoryId() != null) {
+        // 2. 并行获取内容、分类、作者和标签，耗时取决于最慢的一项
+        ParallelLookup lookup = new ParallelLookup(articleDetailExecutor);
+        CompletableFuture<String> contentFuture = lookup.submit(
+                () -> fileService.getContent(article.getContentKey()));
+        CompletableFuture<String> categoryFuture = lookup.submit(() -> {
+            if (article.getCategoryId() == null) {
+                return null;
+            }
             Category category = categoryRepository.selectById(article.getCategoryId());
-            categoryName = category != null ? category.getName() : null;
+            return category != null ? category.getName() : null;
+        });
+        CompletableFuture<String> authorFuture = lookup.submit(() -> getUserName(article.getAuthorId()));
+        CompletableFuture<List<TagResponse>> tagsFuture = lookup.submit(() -> getArticleTags(article.getId()));
+
+        // 3. 内容是必需的，其余依赖失败或超时时降级为空值
+        String content = lookup.join(contentFuture, "content", articleDetailConfig.getContentTimeoutMs(), null);
+        if (content == null) {
+            Asserts.fail("文章内容加载失败");
         }
-        
-        return ArticleDetailResponse.builder()
+        long lookupTimeout = articleDetailConfig.getLookupTimeoutMs();
+        String categoryName = lookup.join(categoryFuture, "category", lookupTimeout, null);
+        String authorName = lookup.join(authorFuture, "author", lookupTimeout, null);
+        List<TagResponse> tags = lookup.join(tagsFuture, "tags", lookupTimeout, Collections.emptyList());
+
+        ArticleDetailResponse detail = ArticleDetailResponse.builder()
                 .id(article.getId())
                 .title(article.getTitle())
                 .content(content)
                 .summary(article.getSummary())
-                .coverUrl(article.getCoverUrl())
+                .coverUrl(fileService.getUrl(article.getCoverKey()))
+                .coverThumbnailUrl(fileService.getImageUrl(article.getCoverKey(), ImageVariant.SMALL))
+                .coverPlaceholderUrl(fileService.getImageUrl(article.getCoverKey(), ImageVariant.PLACEHOLDER))
                 .authorId(article.getAuthorId())
-                .authorName(getUserName(article.getAuthorId()))
+                .authorName(authorName)
                 .categoryId(article.getCategoryId())
                 .categoryName(categoryName)
                 .status(article.getStatus())
@@ -109,63 +210,134 @@ public class ArticleServiceImpl implements ArticleService {
                 .isTop(article.getIsTop())
                 .createTime(article.getCreateTime())
                 .updateTime(article.getUpdateTime())
-                .tags(getArticleTags(article.getId()))
+                .tags(tags)
+                .contentKey(article.getContentKey())
                 .build();
+        if (lookup.isPartial()) {
+            // 不完整的结果不写入缓存，下次请求重新加载
+            meterRegistry.counter("blog.article.detail.partial").increment();
+            throw new ArticleDetailCache.PartialResultException(detail);
+        }
+        etagRegistry.putArticle(id, article.getUpdateTime(), content);
+        return detail;
     }
     
     @Override
-    @Transactional
-    public Article update(Long id, ArticleUpdateRequest request) {
-        // 1. 检查文章是否存在
+    public ArticleContentResponse getContent(Long id, boolean acceptGzip, String ifNoneMatch) {
         Article article = articleRepository.selectById(id);
         if (article == null) {
             Asserts.fail("文章不存在");
         }
-        
-        // 2. 如果有新的内容，更新到MinIO
-        if (request.getContent() != null) {
-            String contentUrl = fileService.uploadContent(
-                request.getContent(),
-                StorageConstants.ARTICLE_CONTENT_DIR,
-                UUID.randomUUID().toString() + ".md"
-            );
-            article.setContentUrl(contentUrl);
-        }
-        
-        // 3. 如果有新的封面图片，更新到MinIO
-        if (request.getCover() != null && !request.getCover().isEmpty()) {
-            String coverUrl = fileService.uploadFile(
-                request.getCover(),
-                StorageConstants.ARTICLE_IMAGES_DIR
-            );
-            article.setCoverUrl(coverUrl);
-        }
-        
-        // 4. 更新其他字段
-        if (request.getTitle() != null) {
-            article.setTitle(request.getTitle());
+        String objectName = article.getContentKey();
+        // 内容对象写入后不再修改，对象名即可作为强校验ETag，无需打开内容即可判断客户端缓存是否有效
+        String etag = "\"" + HashUtils.sha256Hex(objectName.getBytes(StandardCharsets.UTF_8));
+        String gzipEtag = etag + "-gzip\"";
+        String identityEtag = etag + "\"";
+        if (ifNoneMatch != null) {
+            if (acceptGzip && ifNoneMatch.contains(gzipEtag)) {
+                return new ArticleContentResponse(null, "gzip", gzipEtag);
+            }
+            if (ifNoneMatch.contains(identityEtag)) {
+                return new ArticleContentResponse(null, null, identityEtag);
+            }
         }
-        if (request.getSummary() != null) {
-            article.setSummary(request.getSummary());
+        if (acceptGzip) {
+            ContentStream gzip = fileService.openContent(objectName + StorageConstants.GZIP_SUFFIX);
+            if (gzip != null) {
+                return new ArticleContentResponse(gzip, "gzip", gzipEtag);
+            }
+            // 早期上传的内容没有预压缩版本，返回原始内容
         }
-        if (request.getCategoryId() != null) {
-            article.setCategoryId(request.getCategoryId());
+        ContentStream content = fileService.openContent(objectName);
+        if (content == null) {
+            Asserts.fail("获取内容失败");
         }
-        if (request.getIsTop() != null) {
-            article.setIsTop(request.getIsTop());
+        return new ArticleContentResponse(content, null, identityEtag);
+    }
+    
+    @Override
+    public Article update(Long id, ArticleUpdateRequest request) {
+        // 1. 检查文章是否存在
+        if (articleRepository.selectById(id) == null) {
+            Asserts.fail("文章不存在");
         }
         
-        // 5. 更新到数据库
-        if (articleRepository.updateById(article) <= 0) {
-            Asserts.fail("文章更新失败");
-        }
+        // 2. 在事务之外上传；内容按摘要命名，未变化时对象名相同，无需上传
+        String contentKey = request.getContent() != null
+                ? fileService.uploadContentByHash(request.getContent(), StorageConstants.ARTICLE_CONTENT_DIR)
+                : null;
+        StagedObject cover = uploadCover(request.getCover());
         
-        // 6. 如果有标签更新，处理标签关联
-        if (request.getTagIds() != null) {
-            updateArticleTags(id, request.getTagIds());
+        return transactionTemplate.execute(status -> {
+            // 3. 在事务中重新读取，基于最新数据修改
+            Article article = articleRepository.selectById(id);
+            if (article == null) {
+                Asserts.fail("文章不存在");
+            }
+            boolean contentChanged = contentKey != null && !contentKey.equals(article.getContentKey());
+            if (contentChanged) {
+                article.setContentKey(contentKey);
+            }
+            
+            // 4. 确认新封面，旧封面在事务提交后删除
+            if (cover != null) {
+                objectOutboxProcessor.commitStaged(cover.stageId);
+                if (article.getCoverKey() != null) {
+                    objectOutboxProcessor.deleteAfterCommit(article.getCoverKey());
+                }
+                article.setCoverKey(cover.objectName);
+            }
+            
+            // 5. 更新其他字段
+            if (request.getTitle() != null) {
+                article.setTitle(request.getTitle());
+            }
+            if (request.getSummary() != null) {
+                article.setSummary(request.getSummary());
+            }
+            if (request.getCategoryId() != null) {
+                article.setCategoryId(request.getCategoryId());
+            }
+            if (request.getIsTop() != null) {
+                article.setIsTop(request.getIsTop());
+            }
+            
+            // 6. 更新到数据库
+            if (articleRepository.updateById(article) <= 0) {
+                Asserts.fail("文章更新失败");
+            }
+            
+            // 7. 如果有标签更新，处理标签关联
+            if (request.getTagIds() != null) {
+                updateArticleTags(id, request.getTagIds());
+            }
+            
+            articleDetailCache.evict(id);
+            articleJsonCache.evict(id);
+            etagRegistry.evictArticle(id);
+            articleSearchIndex.onArticleChanged(id);
+            relatedArticleIndex.onArticleChanged(id);
+            if (contentChanged) {
+                articleRenderer.onArticleChanged(id);
+            }
+            staticSiteExporter.onArticleChanged(id);
+            pageCountCache.invalidate(PageCountCache.ARTICLE);
+            return article;
+        });
+    }
+    
+    /**
+     * 登记待办后上传封面，元数据未提交时由ObjectOutboxProcessor清理
+     * @return 未上传封面时返回null
+     */
+    private StagedObject uploadCover(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            return null;
         }
-        
-        return article;
+        String objectName = fileService.newObjectName(StorageConstants.ARTICLE_IMAGES_DIR, file.getOriginalFilename());
+        Long stageId = objectOutboxProcessor.stage(objectName);
+        fileService.uploadFileAs(file, objectName);
+        return new StagedObject(stageId, objectName);
     }
     
     @Override
@@ -174,96 +346,78 @@ public class ArticleServiceImpl implements ArticleService {
         if (articleRepository.deleteById(id) <= 0) {
             Asserts.fail("文章删除失败");
         }
+        articleDetailCache.evict(id);
+        articleJsonCache.evict(id);
+        etagRegistry.evictArticle(id);
+        hotArticleRanking.remove(id);
+        articleSearchIndex.onArticleChanged(id);
+        relatedArticleIndex.onArticleChanged(id);
+        staticSiteExporter.onArticleChanged(id);
+        pageCountCache.invalidate(PageCountCache.ARTICLE);
     }
 
     // ========== 列表查询方法 ==========
     @Override
-    public PageInfo<ArticleDetailResponse> getList(int pageNum, int pageSize, Long categoryId, String keyword) {
-        PageHelper.startPage(pageNum, pageSize);
-        List<Article> articles = articleRepository.selectList(categoryId, keyword);
-        
-        // 批量获取所有需要的分类ID
-        List<Long> categoryIds = articles.stream()
-                .map(Article::getCategoryId)
-                .filter(Objects::nonNull)
-                .distinct()
-                .collect(Collectors.toList());
-                
-        // 一次性查询所有需要的分类
-        Map<Long, String> categoryMap = new HashMap<>();
-        if (!categoryIds.isEmpty()) {
-            categoryMap = categoryRepository.selectByIds(categoryIds).stream()
-                    .collect(Collectors.toMap(Category::getId, Category::getName));
+    public PageInfo<ArticleSummaryJson> getList(int pageNum, int pageSize, Long categoryId, String keyword) {
+        PageInfo<ArticleSummaryJson> searchResult = search(pageNum, pageSize, categoryId, null, keyword);
+        if (searchResult != null) {
+            return searchResult;
         }
-
-        // 使用缓存的分类信息转换文章
-        Map<Long, String> finalCategoryMap = categoryMap;
-        return new PageInfo<>(articles.stream()
-                .map(article -> convertToDetailResponse(article, finalCategoryMap))
-                .collect(Collectors.toList()));
+        
+        return pageCountCache.<Article, ArticleSummaryJson>selectPage(PageCountCache.ARTICLE, pageNum, pageSize, keyword,
+                () -> articleRepository.selectList(categoryId, keyword),
+                this::convertToSummaries,
+                "list", categoryId, null);
     }
 
     @Override
-    public PageInfo<ArticleDetailResponse> getList(int pageNum, int pageSize, Long categoryId, 
+    public PageInfo<ArticleSummaryJson> getList(int pageNum, int pageSize, Long categoryId, 
             Long tagId, String keyword, String sortField, String sortDirection) {
-        PageHelper.startPage(pageNum, pageSize);
-        List<Article> articles = articleRepository.selectListWithParams(
-                categoryId, 
-                tagId, 
-                keyword, 
-                sortField, 
-                "desc".equalsIgnoreCase(sortDirection)
-        );
-        
-        // 批量获取分类信息
-        Map<Long, String> categoryMap = getCategoryMapForArticles(articles);
+        // 有关键词时优先走全文索引，按相关度排序
+        PageInfo<ArticleSummaryJson> searchResult = search(pageNum, pageSize, categoryId, tagId, keyword);
+        if (searchResult != null) {
+            return searchResult;
+        }
         
-        return new PageInfo<>(articles.stream()
-                .map(article -> convertToDetailResponse(article, categoryMap))
-                .collect(Collectors.toList()));
+        return pageCountCache.<Article, ArticleSummaryJson>selectPage(PageCountCache.ARTICLE, pageNum, pageSize, keyword,
+                () -> articleRepository.selectListWithParams(
+                        categoryId, 
+                        tagId, 
+                        keyword, 
+                        sortField, 
+                        "desc".equalsIgnoreCase(sortDirection)
+                ),
+                this::convertToSummaries,
+                "list", categoryId, tagId);
     }
 
     @Override
-    public List<ArticleDetailResponse> getHotArticles(int limit) {
-        // 获取浏览量最高的文章
-        List<Article> hotArticles = articleRepository.selectHotArticles(limit);
-        
-        // 批量获取分类信息
-        Map<Long, String> categoryMap = getCategoryMapForArticles(hotArticles);
-        
-        return hotArticles.stream()
-                .map(article -> convertToDetailResponse(article, categoryMap))
-                .collect(Collectors.toList());
+    public List<ArticleSummaryJson> getPublishedList(Long categoryId, Long tagId) {
+        return convertToSummaries(articleRepository.selectPublishedList(categoryId, tagId));
     }
 
     @Override
-    public List<ArticleDetailResponse> getRecommendedArticles(Long articleId, int limit) {
-        // 1. 获取当前文章的分类和标签
-        Article currentArticle = articleRepository.selectById(articleId);
-        if (currentArticle == null) {
+    public List<ArticleSummaryJson> getHotArticles(int limit) {
+        return getRankedArticles(HotArticleRanking.Board.ALL_TIME, limit);
+    }
+
+    @Override
+    public List<ArticleSummaryJson> getTrendingArticles(int limit) {
+        return getRankedArticles(HotArticleRanking.Board.TRENDING, limit);
+    }
+
+    @Override
+    public List<ArticleSummaryJson> getRecommendedArticles(Long articleId, int limit) {
+        // 从预先计算的相关文章表中读取
+        List<Article> relatedArticles = articleRepository.selectRelatedArticles(articleId, limit);
+        if (relatedArticles.isEmpty() && articleRepository.selectById(articleId) == null) {
             Asserts.fail("文章不存在");
         }
-        
-        // 2. 获取相同分类或标签的文章
-        List<Article> recommendedArticles = articleRepository.selectRecommendedArticles(
-                articleId,
-                currentArticle.getCategoryId(),
-                getArticleTags(articleId).stream()
-                        .map(TagResponse::getId)
-                        .collect(Collectors.toList()),
-                limit
-        );
-        
-        // 3. 批量获取分类信息
-        Map<Long, String> categoryMap = getCategoryMapForArticles(recommendedArticles);
-        
-        return recommendedArticles.stream()
-                .map(article -> convertToDetailResponse(article, categoryMap))
-                .collect(Collectors.toList());
+        return convertToSummaries(relatedArticles);
     }
 
     @Override
-    public PageInfo<ArticleDetailResponse> getUserArticles(Long userId, int pageNum, int pageSize) {
+    public PageInfo<ArticleSummaryJson> getUserArticles(Long userId, int pageNum, int pageSize) {
         // 验证用户是否存在
         User user = userRepository.selectById(userId);
         if (user == null) {
@@ -271,15 +425,43 @@ public class ArticleServiceImpl implements ArticleService {
         }
         
         // 分页查询用户的文章
-        PageHelper.startPage(pageNum, pageSize);
-        List<Article> articles = articleRepository.selectByAuthorId(userId);
+        return pageCountCache.<Article, ArticleSummaryJson>selectPage(PageCountCache.ARTICLE, pageNum, pageSize, null,
+                () -> articleRepository.selectByAuthorId(userId),
+                this::convertToSummaries,
+                "author", userId);
+    }
+
+    @Override
+    public CursorPageResponse<ArticleSummaryJson> getListByCursor(String cursor, int pageSize, Long categoryId,
+            Long tagId, String keyword, String sortField, String sortDirection) {
+        if (pageSize < 1) {
+            Asserts.fail("每页大小必须大于0");
+        }
+        String cursorSortField = ArticleCursor.SORT_VIEW_COUNT.equals(sortField)
+                ? ArticleCursor.SORT_VIEW_COUNT : ArticleCursor.SORT_CREATE_TIME;
+        boolean isDesc = "desc".equalsIgnoreCase(sortDirection);
+        ArticleCursor after = ArticleCursor.decode(cursor, cursorSortField, isDesc);
         
-        // 批量获取分类信息
-        Map<Long, String> categoryMap = getCategoryMapForArticles(articles);
+        // 多取一条用于判断是否还有下一页
+        List<Article> articles = articleRepository.selectListByCursor(
+                categoryId, tagId, keyword, cursorSortField, isDesc, after, pageSize + 1);
+        return toCursorPage(articles, pageSize, cursorSortField, isDesc);
+    }
+
+    @Override
+    public CursorPageResponse<ArticleSummaryJson> getUserArticlesByCursor(Long userId, String cursor, int pageSize) {
+        if (pageSize < 1) {
+            Asserts.fail("每页大小必须大于0");
+        }
+        // 验证用户是否存在
+        User user = userRepository.selectById(userId);
+        if (user == null) {
+            Asserts.fail("用户不存在");
+        }
         
-        return new PageInfo<>(articles.stream()
-                .map(article -> convertToDetailResponse(article, categoryMap))
-                .collect(Collectors.toList()));
+        ArticleCursor after = ArticleCursor.decode(cursor, ArticleCursor.SORT_CREATE_TIME, true);
+        List<Article> articles = articleRepository.selectByAuthorIdByCursor(userId, after, pageSize + 1);
+        return toCursorPage(articles, pageSize, ArticleCursor.SORT_CREATE_TIME, true);
     }
 
     // ========== 状态操作方法 ==========
@@ -289,19 +471,83 @@ public class ArticleServiceImpl implements ArticleService {
         if (articleRepository.updateStatus(id, status) <= 0) {
             Asserts.fail("更新文章状态失败");
         }
+        articleDetailCache.evict(id);
+        articleJsonCache.evict(id);
+        etagRegistry.evictArticle(id);
+        articleSearchIndex.onArticleChanged(id);
+        relatedArticleIndex.onArticleChanged(id);
+        staticSiteExporter.onArticleChanged(id);
+        pageCountCache.invalidate(PageCountCache.ARTICLE);
+        
+        // 同步热门排行：发布的文章加入排行，其他状态移出排行
+        if (ArticleStatus.PUBLISHED.name().equals(status)) {
+            Article article = articleRepository.selectById(id);
+            hotArticleRanking.onPublished(id, article.getViewCount());
+            articleRenderer.onArticleChanged(id);
+        } else {
+            hotArticleRanking.remove(id);
+        }
     }
     
+    @Override
+    @Transactional
+    public void retag(ArticleRetagRequest request) {
+        Set<Long> addTagIds = request.getAddTagIds() != null ? new HashSet<>(request.getAddTagIds()) : new HashSet<>();
+        Set<Long> removeTagIds = request.getRemoveTagIds() != null ? new HashSet<>(request.getRemoveTagIds()) : new HashSet<>();
+        if (addTagIds.isEmpty() && removeTagIds.isEmpty()) {
+            return;
+        }
+        if (!Collections.disjoint(addTagIds, removeTagIds)) {
+            Asserts.fail("同一标签不能同时添加和移除");
+        }
+        Set<Long> existingTagIds = tagRepository.selectAll().stream()
+                .map(Tag::getId)
+                .collect(Collectors.toSet());
+        if (!existingTagIds.containsAll(addTagIds)) {
+            Asserts.fail("标签不存在");
+        }
+        List<Long> articleIds = articleRepository.selectByIds(new ArrayList<>(new LinkedHashSet<>(request.getArticleIds())))
+                .stream()
+                .map(Article::getId)
+                .collect(Collectors.toList());
+        if (articleIds.isEmpty()) {
+            Asserts.fail("文章不存在");
+        }
+
+        // 每种操作一条语句
+        if (!removeTagIds.isEmpty()) {
+            articleRepository.deleteArticleTagPairs(articleIds, removeTagIds);
+        }
+        if (!addTagIds.isEmpty()) {
+            articleRepository.insertArticleTagPairs(articleIds, addTagIds);
+        }
+        articleRepository.touchUpdateTime(articleIds);
+
+        for (Long id : articleIds) {
+            articleDetailCache.evict(id);
+            articleJsonCache.evict(id);
+            etagRegistry.evictArticle(id);
+            articleSearchIndex.onArticleChanged(id);
+            relatedArticleIndex.onArticleChanged(id);
+            staticSiteExporter.onArticleChanged(id);
+        }
+        pageCountCache.invalidate(PageCountCache.ARTICLE);
+    }
+
     @Override
     @Transactional
     public void setTop(Long id, boolean isTop) {
         if (articleRepository.updateTop(id, isTop) <= 0) {
             Asserts.fail("设置文章置顶状态失败");
         }
+        articleDetailCache.evict(id);
+        articleJsonCache.evict(id);
+        etagRegistry.evictArticle(id);
     }
     
     @Override
     public void incrementViewCount(Long id) {
-        articleRepository.updateViewCount(id);
+        viewCountBuffer.increment(id);
     }
 
     @Override
@@ -315,14 +561,131 @@ public class ArticleServiceImpl implements ArticleService {
     }
 
     // ========== 私有辅助方法 ==========
-    private ArticleDetailResponse convertToDetailResponse(Article article, Map<Long, String> categoryMap) {
+    /**
+     * 按排行获取文章列表
+     * 排行可用时只按主键查询榜单上的文章并短期缓存结果，不可用时退回按浏览量排序查询
+     */
+    private List<ArticleSummaryJson> getRankedArticles(HotArticleRanking.Board board, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        return hotArticlesCache.get(board + ":" + limit, key -> {
+            List<Long> ids = hotArticleRanking.getTopIds(board, limit);
+            if (ids == null) {
+                return convertToSummaries(articleRepository.selectHotArticles(limit));
+            }
+            
+            // 过滤已下线的文章
+            List<Article> articles = selectByIdsInOrder(ids).stream()
+                    .filter(article -> article.getStatus() == ArticleStatus.PUBLISHED)
+                    .collect(Collectors.toList());
+            return convertToSummaries(articles);
+        });
+    }
+
+    /**
+     * 将多取一条的查询结果转换为游标分页响应，以本页最后一条文章生成下一页游标
+     */
+    private CursorPageResponse<ArticleSummaryJson> toCursorPage(List<Article> articles, int pageSize,
+            String sortField, boolean isDesc) {
+        boolean hasMore = articles.size() > pageSize;
+        List<Article> pageArticles = hasMore ? articles.subList(0, pageSize) : articles;
+        
+        String nextCursor = null;
+        if (hasMore) {
+            Article last = pageArticles.get(pageArticles.size() - 1);
+            nextCursor = ArticleCursor.builder()
+                    .sortField(sortField)
+                    .isDesc(isDesc)
+                    .isTop(Boolean.TRUE.equals(last.getIsTop()))
+                    .createTime(last.getCreateTime())
+                    .viewCount(last.getViewCount())
+                    .id(last.getId())
+                    .build()
+                    .encode();
+        }
+        
+        return CursorPageResponse.<ArticleSummaryJson>builder()
+                .list(convertToSummaries(pageArticles))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * 通过全文索引检索文章
+     * @return 检索结果分页信息，无关键词、索引不可用或关键词含单个汉字时返回null
+     */
+    private PageInfo<ArticleSummaryJson> search(int pageNum, int pageSize, Long categoryId,
+            Long tagId, String keyword) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return null;
+        }
+        ArticleSearchIndex.SearchResult result = articleSearchIndex.search(
+                keyword.trim(), categoryId, tagId, pageNum, pageSize);
+        if (result == null) {
+            return null;
+        }
+        return CountedPageInfo.of(pageNum, pageSize, result.getTotal(),
+                convertToSummaries(selectByIdsInOrder(result.getIds())), true);
+    }
+
+    /**
+     * 按给定ID顺序批量查询文章，跳过不存在的文章
+     */
+    private List<Article> selectByIdsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Article> articleMap = articleRepository.selectByIds(ids).stream()
+                .collect(Collectors.toMap(Article::getId, article -> article));
+        return ids.stream()
+                .map(articleMap::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 批量组装文章列表响应
+     * 优先使用缓存的JSON片段；未命中的文章，分类、作者、标签各用一次查询取回，避免逐行查询数据库
+     * @param articles 文章列表
+     * @return 文章摘要列表
+     */
+    private List<ArticleSummaryJson> convertToSummaries(List<Article> articles) {
+        List<ArticleSummaryJson> summaries = new ArrayList<>(articles.size());
+        List<Article> misses = new ArrayList<>();
+        for (Article article : articles) {
+            ArticleSummaryJson summary = articleJsonCache.get(article);
+            summaries.add(summary);
+            if (summary == null) {
+                misses.add(article);
+            }
+        }
+        if (misses.isEmpty()) {
+            return summaries;
+        }
+
+        Map<Long, String> categoryMap = getCategoryMapForArticles(misses);
+        Map<Long, String> authorMap = getAuthorMapForArticles(misses);
+        Map<Long, List<TagResponse>> tagMap = getTagMapForArticles(misses);
+        for (int i = 0; i < articles.size(); i++) {
+            if (summaries.get(i) == null) {
+                Article article = articles.get(i);
+                summaries.set(i, articleJsonCache.put(article,
+                        convertToDetailResponse(article, categoryMap, authorMap, tagMap)));
+            }
+        }
+        return summaries;
+    }
+
+    private ArticleDetailResponse convertToDetailResponse(Article article, Map<Long, String> categoryMap,
+            Map<Long, String> authorMap, Map<Long, List<TagResponse>> tagMap) {
         return ArticleDetailResponse.builder()
                 .id(article.getId())
                 .title(article.getTitle())
                 .summary(article.getSummary())
-                .coverUrl(article.getCoverUrl())
                 .authorId(article.getAuthorId())
-                .authorName(getUserName(article.getAuthorId()))
+                .authorName(authorMap.get(article.getAuthorId()))
                 .categoryId(article.getCategoryId())
                 .categoryName(getCategoryName(article.getCategoryId(), categoryMap))
                 .status(article.getStatus())
@@ -330,10 +693,10 @@ public class ArticleServiceImpl implements ArticleService {
                 .isTop(article.getIsTop())
                 .createTime(article.getCreateTime())
                 .updateTime(article.getUpdateTime())
-                .tags(getArticleTags(article.getId()))
+                .tags(tagMap.getOrDefault(article.getId(), new ArrayList<>()))
                 .build();
     }
-    
+
     private String getCategoryName(Long categoryId, Map<Long, String> categoryMap) {
         return categoryId != null ? categoryMap.get(categoryId) : null;
     }
@@ -347,25 +710,62 @@ public class ArticleServiceImpl implements ArticleService {
         return articleRepository.selectArticleTags(articleId);
     }
     
-    private String getObjectNameFromUrl(String url) {
-        if (url == null) {
-            Asserts.fail("文件URL不能为空");
-        }
-        return url.substring(url.indexOf(StorageConstants.ARTICLE_CONTENT_DIR));
-    }
-    
     /**
      * 更新文章标签关联
+     * 与现有标签比较，只删除移除的关联、插入新增的关联，标签未变时不写数据库
      * @param articleId 文章ID
      * @param tagIds 标签ID列表
      */
     private void updateArticleTags(Long articleId, List<Long> tagIds) {
-        articleRepository.deleteArticleTags(articleId);
-        if (tagIds != null && !tagIds.isEmpty()) {
-            articleRepository.insertArticleTags(articleId, tagIds);
+        Set<Long> current = articleRepository.selectTagsByArticleIds(Collections.singletonList(articleId)).stream()
+                .map(ArticleTag::getTagId)
+                .collect(Collectors.toSet());
+        Set<Long> target = new HashSet<>(tagIds);
+
+        Set<Long> removed = new HashSet<>(current);
+        removed.removeAll(target);
+        if (!removed.isEmpty()) {
+            articleRepository.deleteArticleTagPairs(Collections.singletonList(articleId), removed);
+        }
+        Set<Long> added = new HashSet<>(target);
+        added.removeAll(current);
+        if (!added.isEmpty()) {
+            articleRepository.insertArticleTags(articleId, added);
         }
     }
 
+    private Map<Long, String> getAuthorMapForArticles(List<Article> articles) {
+        List<Long> authorIds = articles.stream()
+                .map(Article::getAuthorId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+
+        if (authorIds.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        return userRepository.selectByIds(authorIds).stream()
+                .collect(Collectors.toMap(User::getId, User::getUsername));
+    }
+
+    private Map<Long, List<TagResponse>> getTagMapForArticles(List<Article> articles) {
+        List<Long> articleIds = articles.stream()
+                .map(Article::getId)
+                .collect(Collectors.toList());
+
+        if (articleIds.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        return articleRepository.selectTagsByArticleIds(articleIds).stream()
+                .collect(Collectors.groupingBy(ArticleTag::getArticleId,
+                        Collectors.mapping(articleTag -> TagResponse.builder()
+                                .id(articleTag.getTagId())
+                                .name(articleTag.getTagName())
+                                .build(), Collectors.toList())));
+    }
+
     private Map<Long, String> getCategoryMapForArticles(List<Article> articles) {
         List<Long> categoryIds = articles.stream()
                 .map(Article::getCategoryId)
@@ -1,13 +1,17 @@
 package com.blog.service.impl;
 
+import com.blog.cache.ArticleDetailCache;
+import com.blog.cache.ArticleJsonCache;
+import com.blog.cache.EtagRegistry;
+import com.blog.cache.PageCountCache;
 import com.blog.common.response.ResultCode;
 import com.blog.dto.request.CategoryRequest;
 import com.blog.dto.response.CategoryResponse;
 import com.blog.exception.Asserts;
 import com.blog.model.Category;
+import com.blog.render.StaticSiteExporter;
 import com.blog.repository.CategoryRepository;
 import com.blog.service.CategoryService;
-import com.github.pagehelper.PageHelper;
 import com.github.pagehelper.PageInfo;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -22,6 +26,11 @@ import java.util.stream.Collectors;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final PageCountCache pageCountCache;
+    private final ArticleJsonCache articleJsonCache;
+    private final ArticleDetailCache articleDetailCache;
+    private final EtagRegistry etagRegistry;
+    private final StaticSiteExporter staticSiteExporter;
 
     @Override
     @Transactional
@@ -40,6 +49,8 @@ public class CategoryServiceImpl implements CategoryService {
                 .build();
 
         categoryRepository.insert(category);
+        pageCountCache.invalidate(PageCountCache.CATEGORY);
+        etagRegistry.bump(EtagRegistry.CATEGORY);
         return convertToVO(category);
     }
 
@@ -66,6 +77,12 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         categoryRepository.update(category);
+        pageCountCache.invalidate(PageCountCache.CATEGORY);
+        // 文章列表和详情中缓存的分类名随之失效
+        articleJsonCache.evictAll();
+        articleDetailCache.clear();
+        etagRegistry.bump(EtagRegistry.CATEGORY, EtagRegistry.ARTICLE_LABELS);
+        staticSiteExporter.onCategoryChanged(id);
         return convertToVO(category);
     }
 
@@ -85,6 +102,9 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         categoryRepository.deleteById(id);
+        pageCountCache.invalidate(PageCountCache.CATEGORY);
+        etagRegistry.bump(EtagRegistry.CATEGORY);
+        staticSiteExporter.onCategoryChanged(id);
     }
 
     @Override
@@ -98,11 +118,11 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public PageInfo<CategoryResponse> getList(int pageNum, int pageSize, String keyword) {
-        PageHelper.startPage(pageNum, pageSize);
-        List<Category> categories = categoryRepository.selectList(keyword);
-        return new PageInfo<>(categories.stream()
-                .map(this::convertToVO)
-                .collect(Collectors.toList()));
+        return pageCountCache.<Category, CategoryResponse>selectPage(PageCountCache.CATEGORY, pageNum, pageSize, keyword,
+                () -> categoryRepository.selectList(keyword),
+                categories -> categories.stream()
+                        .map(this::convertToVO)
+                        .collect(Collectors.toList()));
     }
 
     @Override
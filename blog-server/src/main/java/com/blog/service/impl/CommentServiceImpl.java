@@ -1,5 +1,6 @@
 package com.blog.service.impl;
 
+import com.blog.cache.EtagRegistry;
 import com.blog.common.response.ResultCode;
 import com.blog.common.util.SecurityUtils;
 import com.blog.dto.request.CommentRequest;
@@ -13,6 +14,8 @@ import com.blog.repository.ArticleRepository;
 import com.blog.repository.CommentRepository;
 import com.blog.repository.UserRepository;
 import com.blog.service.CommentService;
+import com.blog.service.FileService;
+import com.blog.storage.ImageVariant;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,6 +33,8 @@ public class CommentServiceImpl implements CommentService {
     private final CommentRepository commentRepository;
     private final ArticleRepository articleRepository;
     private final UserRepository userRepository;
+    private final EtagRegistry etagRegistry;
+    private final FileService fileService;
 
     @Override
     @Transactional
@@ -58,6 +63,7 @@ public class CommentServiceImpl implements CommentService {
                 .build();
 
         commentRepository.insert(comment);
+        etagRegistry.bump(EtagRegistry.COMMENT);
         return convertToVO(comment, null);
     }
 
@@ -80,6 +86,7 @@ public class CommentServiceImpl implements CommentService {
         for (Comment child : children) {
             commentRepository.deleteById(child.getId());
         }
+        etagRegistry.bump(EtagRegistry.COMMENT);
     }
 
     @Override
@@ -155,7 +162,8 @@ public class CommentServiceImpl implements CommentService {
         return UserResponse.builder()
                 .id(user.getId())
                 .username(user.getUsername())
-                .avatarUrl(user.getAvatarUrl())
+                // 评论中的头像显示尺寸很小，使用缩略图
+                .avatarUrl(fileService.getImageUrl(user.getAvatarKey(), ImageVariant.SMALL))
                 .build();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,228 @@
+package com.blog.service.impl;
+
+import com.blog.common.util.SecurityUtils;
+import com.blog.config.DirectUploadConfig;
+import com.blog.config.MinioConfig;
+import com.blog.constant.StorageConstants;
+import com.blog.dto.request.DirectUploadRequest;
+import com.blog.dto.response.DirectUploadResponse;
+import com.blog.exception.Asserts;
+import com.blog.service.DirectUploadService;
+import com.blog.service.FileService;
+import com.blog.storage.ImageDerivativePipeline;
+import com.blog.storage.ObjectOutboxProcessor;
+import com.blog.storage.ObjectStoreResilience;
+import io.minio.CopyObjectArgs;
+import io.minio.CopySource;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MinioClient;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.http.Method;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 直传存储上传
+ * 服务端只校验文件信息并签发短期有效的预签名PUT地址，文件由浏览器直接上传到MinIO的暂存对象，不经过应用节点；
+ * 确认上传时核对暂存对象的大小和类型，再在服务端复制到客户端无法写入的正式对象名，
+ * 预签名地址在有效期内被再次使用也不会改变已确认的文件。
+ * 暂存对象签发时记录STAGED待办且不提交，确认后立即删除，有效期内被重新写入的由待办超时清理
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DirectUploadServiceImpl implements DirectUploadService {
+
+    private static final String UPLOAD_KEY_PREFIX = "upload:direct:";
+
+    private static final String FIELD_OBJECT_NAME = "objectName";
+    private static final String FIELD_STAGING_NAME = "stagingName";
+    private static final String FIELD_DIRECTORY = "directory";
+    private static final String FIELD_OWNER_ID = "ownerId";
+    private static final String FIELD_CONTENT_TYPE = "contentType";
+    private static final String FIELD_SIZE = "size";
+
+    private final MinioClient minioClient;
+    private final MinioConfig minioConfig;
+    private final FileService fileService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final DirectUploadConfig directUploadConfig;
+    private final ObjectStoreResilience objectStoreResilience;
+    private final ObjectOutboxProcessor objectOutboxProcessor;
+    private final ImageDerivativePipeline imageDerivativePipeline;
+
+    @Override
+    public DirectUploadResponse create(DirectUploadRequest request) {
+        String directory = "AVATAR".equals(request.getTarget())
+                ? StorageConstants.AVATAR_DIR
+                : StorageConstants.ARTICLE_IMAGES_DIR;
+        // 与经服务端上传相同的类型和大小限制
+        fileService.validateImage(request.getContentType(), request.getSize(), directory);
+
+        String objectName = fileService.newObjectName(directory, request.getFilename());
+        String uploadId = UUID.randomUUID().toString().replace("-", "");
+        String stagingName = StorageConstants.UPLOAD_STAGING_DIR + "/" + uploadId;
+        // 先记录待办再签发地址，暂存对象在待办超时后删除
+        objectOutboxProcessor.stage(stagingName);
+        String uploadUrl = null;
+        try {
+            uploadUrl = objectStoreResilience.call("presignPut", () -> minioClient.getPresignedObjectUrl(
+                    GetPresignedObjectUrlArgs.builder()
+                            .bucket(minioConfig.getBucketName())
+                            .object(stagingName)
+                            .method(Method.PUT)
+                            .expiry(directUploadConfig.getUrlExpirySeconds(), TimeUnit.SECONDS)
+                            .build()));
+        } catch (Exception e) {
+            log.error("Failed to presign upload for {}: {}", objectName, e.getMessage(), e);
+            Asserts.fail("获取上传地址失败");
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        fields.put(FIELD_OBJECT_NAME, objectName);
+        fields.put(FIELD_STAGING_NAME, stagingName);
+        fields.put(FIELD_DIRECTORY, directory);
+        fields.put(FIELD_OWNER_ID, String.valueOf(SecurityUtils.getCurrentUserId()));
+        fields.put(FIELD_CONTENT_TYPE, request.getContentType());
+        fields.put(FIELD_SIZE, String.valueOf(request.getSize()));
+        String key = UPLOAD_KEY_PREFIX + uploadId;
+        stringRedisTemplate.opsForHash().putAll(key, fields);
+        stringRedisTemplate.expire(key, Duration.ofSeconds(directUploadConfig.getUrlExpirySeconds()
+                + directUploadConfig.getCompleteGraceSeconds()));
+
+        return DirectUploadResponse.builder()
+                .uploadId(uploadId)
+                .uploadUrl(uploadUrl)
+                // 对象的Content-Type取自PUT请求头，确认时与申请的类型核对
+                .headers(Collections.singletonMap("Content-Type", request.getContentType()))
+                .expireAt(System.currentTimeMillis()
+                        + TimeUnit.SECONDS.toMillis(directUploadConfig.getUrlExpirySeconds()))
+                .build();
+    }
+
+    @Override
+    public DirectUploadResponse complete(String uploadId) {
+        String key = UPLOAD_KEY_PREFIX + uploadId;
+        Map<Object, Object> fields = stringRedisTemplate.opsForHash().entries(key);
+        if (fields.isEmpty()) {
+            Asserts.fail("上传不存在或已过期");
+        }
+        if (!Objects.equals(fields.get(FIELD_OWNER_ID), String.valueOf(SecurityUtils.getCurrentUserId()))) {
+            Asserts.fail("无权操作该上传");
+        }
+        String objectName = fields.get(FIELD_OBJECT_NAME).toString();
+        String stagingName = fields.get(FIELD_STAGING_NAME).toString();
+
+        StatObjectResponse stat = statObject(stagingName);
+        if (stat == null) {
+            // 保留上传记录，客户端上传完成后可以再次确认
+            Asserts.fail("文件尚未上传");
+        }
+        String contentType = fields.get(FIELD_CONTENT_TYPE).toString();
+        long size = Long.parseLong(fields.get(FIELD_SIZE).toString());
+        if (stat.size() != size || !contentType.equals(stat.contentType())) {
+            reject(key, stagingName);
+            Asserts.fail("上传的文件与申请的大小或类型不一致");
+        }
+        try {
+            // 预签名PUT无法限制请求体，按实际对象重新校验
+            fileService.validateImage(stat.contentType(), stat.size(), fields.get(FIELD_DIRECTORY).toString());
+        } catch (RuntimeException e) {
+            reject(key, stagingName);
+            throw e;
+        }
+
+        // 复制时要求ETag与校验时一致，校验后被再次写入的暂存对象不会被确认
+        Long stageId = objectOutboxProcessor.stage(objectName);
+        copyObject(stagingName, stat.etag(), objectName);
+        objectOutboxProcessor.commitStaged(stageId);
+        stringRedisTemplate.delete(key);
+        deleteStaging(stagingName);
+        imageDerivativePipeline.submit(objectName);
+        log.info("Completed direct upload {} for {} ({} bytes)", uploadId, objectName, stat.size());
+        return DirectUploadResponse.builder()
+                .uploadId(uploadId)
+                .url(fileService.getUrl(objectName))
+                .build();
+    }
+
+    /**
+     * 删除不符合申请的暂存对象并结束上传
+     */
+    private void reject(String key, String stagingName) {
+        stringRedisTemplate.delete(key);
+        deleteStaging(stagingName);
+    }
+
+    /**
+     * 删除暂存对象，待办保留，预签名地址有效期内被重新写入的对象超时后由待办删除
+     */
+    private void deleteStaging(String stagingName) {
+        try {
+            fileService.deleteFile(stagingName);
+        } catch (Exception e) {
+            log.warn("Failed to delete staged upload {}: {}", stagingName, e.getMessage());
+        }
+    }
+
+    /**
+     * 在服务端把已校验的暂存对象复制为正式对象
+     */
+    private void copyObject(String stagingName, String etag, String objectName) {
+        try {
+            objectStoreResilience.call("copyObject", () -> minioClient.copyObject(CopyObjectArgs.builder()
+                    .bucket(minioConfig.getBucketName())
+                    .object(objectName)
+                    .source(CopySource.builder()
+                            .bucket(minioConfig.getBucketName())
+                            .object(stagingName)
+                            .matchETag(etag)
+                            .build())
+                    .build()));
+        } catch (ErrorResponseException e) {
+            if ("PreconditionFailed".equals(e.errorResponse().code())) {
+                Asserts.fail("上传的文件在确认期间被修改，请重新确认");
+            }
+            log.error("Failed to copy {} to {}: {}", stagingName, objectName, e.getMessage(), e);
+            Asserts.fail("确认上传失败");
+        } catch (Exception e) {
+            log.error("Failed to copy {} to {}: {}", stagingName, objectName, e.getMessage(), e);
+            Asserts.fail("确认上传失败");
+        }
+    }
+
+    /**
+     * 获取对象元数据
+     * @return 对象元数据，对象不存在时返回null
+     */
+    private StatObjectResponse statObject(String objectName) {
+        try {
+            return objectStoreResilience.call("statObject", () -> minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(minioConfig.getBucketName())
+                    .object(objectName)
+                    .build()));
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return null;
+            }
+            log.error("Failed to stat {}: {}", objectName, e.getMessage(), e);
+            Asserts.fail("确认上传失败");
+        } catch (Exception e) {
+            log.error("Failed to stat {}: {}", objectName, e.getMessage(), e);
+            Asserts.fail("确认上传失败");
+        }
+        return null;
+    }
+}
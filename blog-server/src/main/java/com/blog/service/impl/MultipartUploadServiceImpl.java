@@ -0,0 +1,365 @@
+package com.blog.service.impl;
+
+import com.blog.cache.RedisLock;
+import com.blog.common.util.SecurityUtils;
+import com.blog.config.MinioConfig;
+import com.blog.config.MultipartUploadConfig;
+import com.blog.constant.StorageConstants;
+import com.blog.dto.request.UploadSessionCreateRequest;
+import com.blog.dto.response.UploadSessionResponse;
+import com.blog.exception.Asserts;
+import com.blog.service.FileService;
+import com.blog.service.MultipartUploadService;
+import com.blog.storage.ImageDerivativePipeline;
+import com.blog.storage.MultipartMinioClient;
+import com.blog.storage.ObjectStoreResilience;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.Part;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+/**
+ * 分片上传
+ * 会话保存在Redis中，分片直接写入MinIO的分片上传，已上传的分片以MinIO为准；
+ * 每个分片是一次独立的短请求，可以并行上传、失败后单独重试，中断后查询会话继续上传剩余分片
+ */
+@Slf4j
+@Service
+public class MultipartUploadServiceImpl implements MultipartUploadService {
+
+    private static final String SESSION_KEY_PREFIX = "upload:session:";
+    private static final String EXPIRY_KEY = "upload:session:expiry";
+    private static final String CLEANUP_LOCK_KEY = "upload:session:cleanup:lock";
+    private static final int CLEANUP_BATCH_SIZE = 100;
+    private static final Set<String> IMAGE_TYPES = new HashSet<>(Arrays.asList(
+            "image/jpeg", "image/png", "image/gif", "image/webp"));
+
+    /** 附件按下载方式提供，只允许常见文档、压缩包和音视频类型，不接受可被浏览器当作页面执行的类型 */
+    private static final Set<String> ATTACHMENT_TYPES = new HashSet<>(Arrays.asList(
+            "application/pdf", "application/zip", "application/x-zip-compressed", "application/gzip",
+            "application/x-tar", "application/x-7z-compressed", "application/x-rar-compressed",
+            "application/msword", "application/vnd.ms-excel", "application/vnd.ms-powerpoint",
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+            "application/vnd.openxmlformats-officedocument.presentationml.presentation",
+            "text/plain", "text/markdown", "text/csv",
+            "audio/mpeg", "audio/wav", "video/mp4", "video/webm",
+            "application/octet-stream"));
+
+    private static final String FIELD_OBJECT_NAME = "objectName";
+    private static final String FIELD_OWNER_ID = "ownerId";
+    private static final String FIELD_SIZE = "size";
+    private static final String FIELD_PART_SIZE = "partSize";
+    private static final String FIELD_EXPIRE_AT = "expireAt";
+
+    private final MultipartMinioClient multipartMinioClient;
+    private final MinioConfig minioConfig;
+    private final FileService fileService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisLock redisLock;
+    private final MultipartUploadConfig multipartUploadConfig;
+    private final ObjectStoreResilience objectStoreResilience;
+    private final ImageDerivativePipeline imageDerivativePipeline;
+
+    /** 限制同时缓冲在内存中的分片数 */
+    private final Semaphore partPermits;
+
+    public MultipartUploadServiceImpl(MultipartMinioClient multipartMinioClient,
+                                      MinioConfig minioConfig,
+                                      FileService fileService,
+                                      StringRedisTemplate stringRedisTemplate,
+                                      RedisLock redisLock,
+                                      MultipartUploadConfig multipartUploadConfig,
+                                      ObjectStoreResilience objectStoreResilience,
+                                      ImageDerivativePipeline imageDerivativePipeline) {
+        this.multipartMinioClient = multipartMinioClient;
+        this.minioConfig = minioConfig;
+        this.fileService = fileService;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisLock = redisLock;
+        this.multipartUploadConfig = multipartUploadConfig;
+        this.objectStoreResilience = objectStoreResilience;
+        this.imageDerivativePipeline = imageDerivativePipeline;
+        this.partPermits = new Semaphore(multipartUploadConfig.getMaxConcurrentParts());
+    }
+
+    /**
+     * 上传会话
+     */
+    private static class Session {
+        private String uploadId;
+        private String objectName;
+        private Long ownerId;
+        private long size;
+        private int partSize;
+
+        int partCount() {
+            return (int) ((size + partSize - 1) / partSize);
+        }
+
+        long partLength(int partNumber) {
+            return partNumber < partCount() ? partSize : size - (long) (partCount() - 1) * partSize;
+        }
+    }
+
+    @Override
+    public UploadSessionResponse create(UploadSessionCreateRequest request) {
+        String directory;
+        long maxSize;
+        if ("IMAGE".equals(request.getCategory())) {
+            if (!IMAGE_TYPES.contains(request.getContentType())) {
+                Asserts.fail("不支持的图片格式");
+            }
+            directory = StorageConstants.ARTICLE_IMAGES_DIR;
+            maxSize = multipartUploadConfig.getMaxImageSize();
+        } else {
+            if (!ATTACHMENT_TYPES.contains(request.getContentType())) {
+                Asserts.fail("不支持的附件格式");
+            }
+            directory = StorageConstants.ARTICLE_ATTACHMENTS_DIR;
+            maxSize = multipartUploadConfig.getMaxAttachmentSize();
+        }
+        if (request.getSize() > maxSize) {
+            Asserts.fail("文件大小超出限制");
+        }
+
+        Session session = new Session();
+        session.objectName = fileService.newObjectName(directory, request.getFilename());
+        session.ownerId = SecurityUtils.getCurrentUserId();
+        session.size = request.getSize();
+        session.partSize = multipartUploadConfig.getPartSize();
+        try {
+            session.uploadId = objectStoreResilience.call("createMultipartUpload",
+                    () -> multipartMinioClient.createUpload(minioConfig.getBucketName(),
+                            session.objectName, request.getContentType()));
+        } catch (Exception e) {
+            log.error("Error creating multipart upload: {}", e.getMessage(), e);
+            Asserts.fail("创建上传失败");
+        }
+
+        long expireAt = System.currentTimeMillis()
+                + Duration.ofMinutes(multipartUploadConfig.getSessionTtlMinutes()).toMillis();
+        Map<String, String> fields = new HashMap<>();
+        fields.put(FIELD_OBJECT_NAME, session.objectName);
+        fields.put(FIELD_OWNER_ID, String.valueOf(session.ownerId));
+        fields.put(FIELD_SIZE, String.valueOf(session.size));
+        fields.put(FIELD_PART_SIZE, String.valueOf(session.partSize));
+        fields.put(FIELD_EXPIRE_AT, String.valueOf(expireAt));
+        String key = SESSION_KEY_PREFIX + session.uploadId;
+        stringRedisTemplate.opsForHash().putAll(key, fields);
+        // 会话比有效期多保留两个清理周期，保证过期后仍能找到对象名并中止上传
+        stringRedisTemplate.expire(key, Duration.ofMillis(expireAt - System.currentTimeMillis()
+                + 2 * multipartUploadConfig.getCleanupIntervalMs()));
+        stringRedisTemplate.opsForZSet().add(EXPIRY_KEY, session.uploadId, expireAt);
+
+        log.info("Created multipart upload {} for {} ({} bytes)", session.uploadId, session.objectName, session.size);
+        return toResponse(session, Collections.emptyList());
+    }
+
+    @Override
+    public UploadSessionResponse get(String uploadId) {
+        Session session = loadSession(uploadId);
+        List<Integer> uploadedParts = listParts(session).stream()
+                .map(Part::partNumber)
+                .collect(Collectors.toList());
+        return toResponse(session, uploadedParts);
+    }
+
+    @Override
+    public void uploadPart(String uploadId, int partNumber, InputStream input, long length) {
+        Session session = loadSession(uploadId);
+        if (partNumber < 1 || partNumber > session.partCount()) {
+            Asserts.fail("分片号无效");
+        }
+        if (length != session.partLength(partNumber)) {
+            Asserts.fail("分片长度应为" + session.partLength(partNumber));
+        }
+        if (!partPermits.tryAcquire()) {
+            Asserts.fail("上传繁忙，请稍后重试");
+        }
+        try {
+            // 缓冲整个分片，与MinIO之间的失败可以直接重试，不需要客户端重传
+            byte[] data = readFully(input, (int) length);
+            try {
+                objectStoreResilience.call("uploadPart", () -> multipartMinioClient.uploadPart(
+                        minioConfig.getBucketName(), session.objectName, session.uploadId, partNumber, data,
+                        data.length));
+            } catch (Exception e) {
+                log.error("Failed to upload part {} of {}: {}", partNumber, uploadId, e.getMessage(), e);
+                Asserts.fail("分片上传失败");
+            }
+        } finally {
+            partPermits.release();
+        }
+    }
+
+    @Override
+    public UploadSessionResponse complete(String uploadId) {
+        Session session = loadSession(uploadId);
+        List<Part> parts = listParts(session);
+        if (parts.size() != session.partCount()) {
+            Asserts.fail("还有" + (session.partCount() - parts.size()) + "个分片未上传");
+        }
+        Part[] completed = new Part[parts.size()];
+        for (int i = 0; i < parts.size(); i++) {
+            Part part = parts.get(i);
+            completed[i] = new Part(part.partNumber(), part.etag());
+        }
+        try {
+            objectStoreResilience.call("completeMultipartUpload", () -> {
+                multipartMinioClient.completeUpload(minioConfig.getBucketName(), session.objectName, uploadId,
+                        completed);
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Error completing multipart upload {}: {}", uploadId, e.getMessage(), e);
+            Asserts.fail("合并分片失败");
+        }
+        removeSession(uploadId);
+        log.info("Completed multipart upload {} for {}", uploadId, session.objectName);
+        if (session.objectName.startsWith(StorageConstants.ARTICLE_IMAGES_DIR + "/")) {
+            imageDerivativePipeline.submit(session.objectName);
+        }
+
+        UploadSessionResponse response = toResponse(session, null);
+        response.setUrl(fileService.getUrl(session.objectName));
+        return response;
+    }
+
+    @Override
+    public void abort(String uploadId) {
+        Session session = loadSession(uploadId);
+        abortUpload(uploadId, session.objectName);
+        removeSession(uploadId);
+    }
+
+    /**
+     * 定期中止过期未完成的上传，多节点间通过锁避免重复处理
+     */
+    @Scheduled(fixedDelayString = "#{@multipartUploadConfig.cleanupIntervalMs}")
+    public void cleanupExpired() {
+        try {
+            String token = redisLock.tryLock(CLEANUP_LOCK_KEY,
+                    Duration.ofMillis(multipartUploadConfig.getCleanupIntervalMs()));
+            if (token == null) {
+                return;
+            }
+            try {
+                Set<String> expired;
+                int aborted = 0;
+                do {
+                    expired = stringRedisTemplate.opsForZSet().rangeByScore(EXPIRY_KEY, 0,
+                            System.currentTimeMillis(), 0, CLEANUP_BATCH_SIZE);
+                    if (expired == null) {
+                        return;
+                    }
+                    for (String uploadId : expired) {
+                        Object objectName = stringRedisTemplate.opsForHash()
+                                .get(SESSION_KEY_PREFIX + uploadId, FIELD_OBJECT_NAME);
+                        if (objectName != null) {
+                            abortUpload(uploadId, objectName.toString());
+                            aborted++;
+                        }
+                        removeSession(uploadId);
+                    }
+                } while (expired.size() == CLEANUP_BATCH_SIZE);
+                if (aborted > 0) {
+                    log.info("Aborted {} expired multipart uploads", aborted);
+                }
+            } finally {
+                redisLock.unlock(CLEANUP_LOCK_KEY, token);
+            }
+        } catch (Exception e) {
+            log.error("Error cleaning up expired multipart uploads", e);
+        }
+    }
+
+    private Session loadSession(String uploadId) {
+        Map<Object, Object> fields = stringRedisTemplate.opsForHash().entries(SESSION_KEY_PREFIX + uploadId);
+        if (fields.isEmpty()
+                || Long.parseLong(fields.get(FIELD_EXPIRE_AT).toString()) < System.currentTimeMillis()) {
+            Asserts.fail("上传会话不存在或已过期");
+        }
+        Session session = new Session();
+        session.uploadId = uploadId;
+        session.objectName = fields.get(FIELD_OBJECT_NAME).toString();
+        session.ownerId = Long.valueOf(fields.get(FIELD_OWNER_ID).toString());
+        session.size = Long.parseLong(fields.get(FIELD_SIZE).toString());
+        session.partSize = Integer.parseInt(fields.get(FIELD_PART_SIZE).toString());
+        if (!session.ownerId.equals(SecurityUtils.getCurrentUserId())) {
+            Asserts.fail("无权操作该上传");
+        }
+        return session;
+    }
+
+    private void removeSession(String uploadId) {
+        stringRedisTemplate.delete(SESSION_KEY_PREFIX + uploadId);
+        stringRedisTemplate.opsForZSet().remove(EXPIRY_KEY, uploadId);
+    }
+
+    private List<Part> listParts(Session session) {
+        try {
+            return objectStoreResilience.call("listParts", () -> multipartMinioClient.listUploadedParts(
+                    minioConfig.getBucketName(), session.objectName, session.uploadId));
+        } catch (Exception e) {
+            log.error("Error listing parts of upload {}: {}", session.uploadId, e.getMessage(), e);
+            Asserts.fail("获取上传进度失败");
+            return null;
+        }
+    }
+
+    private void abortUpload(String uploadId, String objectName) {
+        try {
+            objectStoreResilience.call("abortMultipartUpload", () -> {
+                multipartMinioClient.abortUpload(minioConfig.getBucketName(), objectName, uploadId);
+                return null;
+            });
+        } catch (ErrorResponseException e) {
+            // 已完成或已中止的上传无需处理
+            if (!"NoSuchUpload".equals(e.errorResponse().code())) {
+                log.warn("Failed to abort multipart upload {}: {}", uploadId, e.getMessage());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to abort multipart upload {}: {}", uploadId, e.getMessage());
+        }
+    }
+
+    private static byte[] readFully(InputStream input, int length) {
+        byte[] data = new byte[length];
+        int offset = 0;
+        try {
+            while (offset < length) {
+                int read = input.read(data, offset, length - offset);
+                if (read == -1) {
+                    break;
+                }
+                offset += read;
+            }
+        } catch (IOException e) {
+            Asserts.fail("读取分片数据失败");
+        }
+        if (offset < length) {
+            Asserts.fail("分片数据不完整");
+        }
+        return data;
+    }
+
+    private static UploadSessionResponse toResponse(Session session, List<Integer> uploadedParts) {
+        return UploadSessionResponse.builder()
+                .uploadId(session.uploadId)
+                .size(session.size)
+                .partSize(session.partSize)
+                .partCount(session.partCount())
+                .uploadedParts(uploadedParts)
+                .build();
+    }
+}
@@ -1,13 +1,17 @@
 package com.blog.service.impl;
 
+import com.blog.cache.ArticleDetailCache;
+import com.blog.cache.ArticleJsonCache;
+import com.blog.cache.EtagRegistry;
+import com.blog.cache.PageCountCache;
 import com.blog.common.response.ResultCode;
 import com.blog.dto.request.TagRequest;
 import com.blog.dto.response.TagResponse;
 import com.blog.exception.Asserts;
 import com.blog.model.Tag;
+import com.blog.render.StaticSiteExporter;
 import com.blog.repository.TagRepository;
 import com.blog.service.TagService;
-import com.github.pagehelper.PageHelper;
 import com.github.pagehelper.PageInfo;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -22,6 +26,11 @@ import java.util.stream.Collectors;
 public class TagServiceImpl implements TagService {
 
     private final TagRepository tagRepository;
+    private final PageCountCache pageCountCache;
+    private final ArticleJsonCache articleJsonCache;
+    private final ArticleDetailCache articleDetailCache;
+    private final EtagRegistry etagRegistry;
+    private final StaticSiteExporter staticSiteExporter;
 
     @Override
     @Transactional
@@ -38,6 +47,8 @@ public class TagServiceImpl implements TagService {
                 .build();
 
         tagRepository.insert(tag);
+        pageCountCache.invalidate(PageCountCache.TAG);
+        etagRegistry.bump(EtagRegistry.TAG);
         return convertToVO(tag);
     }
 
@@ -59,6 +70,12 @@ public class TagServiceImpl implements TagService {
         // 更新标签
         tag.setName(request.getName());
         tagRepository.update(tag);
+        pageCountCache.invalidate(PageCountCache.TAG);
+        // 文章列表和详情中缓存的标签名随之失效
+        articleJsonCache.evictAll();
+        articleDetailCache.clear();
+        etagRegistry.bump(EtagRegistry.TAG, EtagRegistry.ARTICLE_LABELS);
+        staticSiteExporter.onTagChanged(id);
         
         return convertToVO(tag);
     }
@@ -73,6 +90,13 @@ public class TagServiceImpl implements TagService {
         }
 
         tagRepository.deleteById(id);
+        // 文章按标签筛选的计数随之变化
+        pageCountCache.invalidate(PageCountCache.TAG, PageCountCache.ARTICLE);
+        articleJsonCache.evictAll();
+        articleDetailCache.clear();
+        etagRegistry.bump(EtagRegistry.TAG, EtagRegistry.ARTICLE_LABELS);
+        // 删除后已无法查到带该标签的文章，全量重新导出
+        staticSiteExporter.onAllChanged();
     }
 
     @Override
@@ -86,11 +110,11 @@ public class TagServiceImpl implements TagService {
 
     @Override
     public PageInfo<TagResponse> getList(int pageNum, int pageSize, String keyword) {
-        PageHelper.startPage(pageNum, pageSize);
-        List<Tag> tags = tagRepository.selectList(keyword);
-        return new PageInfo<>(tags.stream()
-                .map(this::convertToVO)
-                .collect(Collectors.toList()));
+        return pageCountCache.<Tag, TagResponse>selectPage(PageCountCache.TAG, pageNum, pageSize, keyword,
+                () -> tagRepository.selectList(keyword),
+                tags -> tags.stream()
+                        .map(this::convertToVO)
+                        .collect(Collectors.toList()));
     }
 
     @Override
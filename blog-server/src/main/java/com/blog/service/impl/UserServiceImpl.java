@@ -1,7 +1,12 @@
 package com.blog.service.impl;
 
+import com.blog.cache.ArticleDetailCache;
+import com.blog.cache.ArticleJsonCache;
+import com.blog.cache.EtagRegistry;
+import com.blog.cache.PageCountCache;
 import com.blog.common.response.ResultCode;
 import com.blog.common.util.SecurityUtils;
+import com.blog.constant.StorageConstants;
 import com.blog.dto.request.LoginRequest;
 import com.blog.dto.request.RegisterRequest;
 import com.blog.dto.request.UserUpdateRequest;
@@ -10,11 +15,11 @@ import com.blog.dto.response.UserResponse;
 import com.blog.exception.Asserts;
 import com.blog.model.User;
 import com.blog.model.UserRole;
+import com.blog.render.StaticSiteExporter;
 import com.blog.repository.UserRepository;
 import com.blog.security.JwtTokenUtil;
 import com.blog.service.FileService;
 import com.blog.service.UserService;
-import com.github.pagehelper.PageHelper;
 import com.github.pagehelper.PageInfo;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -39,6 +44,11 @@ import java.util.Collections;
 @CacheConfig(cacheNames = "user")
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final PageCountCache pageCountCache;
+    private final ArticleJsonCache articleJsonCache;
+    private final ArticleDetailCache articleDetailCache;
+    private final EtagRegistry etagRegistry;
+    private final StaticSiteExporter staticSiteExporter;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenUtil jwtTokenUtil;
     private final AuthenticationManager authenticationManager;
@@ -67,6 +77,7 @@ public class UserServiceImpl implements UserService {
         user.setUpdateTime(LocalDateTime.now());
 
         userRepository.insert(user);
+        pageCountCache.invalidate(PageCountCache.USER);
         
         return convertToVO(user);
     }
@@ -131,6 +142,11 @@ public class UserServiceImpl implements UserService {
                 Asserts.fail(ResultCode.USERNAME_ALREADY_EXISTS);
             }
             user.setUsername(request.getUsername());
+            // 文章列表和详情中缓存的作者名随之失效
+            articleJsonCache.evictAll();
+            articleDetailCache.clear();
+            etagRegistry.bump(EtagRegistry.ARTICLE_LABELS);
+            staticSiteExporter.onAllChanged();
         }
 
         // 3. 检查邮箱是否重复
@@ -141,9 +157,13 @@ public class UserServiceImpl implements UserService {
             user.setEmail(request.getEmail());
         }
 
-        // 4. 更新头像URL
+        // 4. 更新头像，只保存对象名，返回时再签名
         if (request.getAvatarUrl() != null) {
-            user.setAvatarUrl(request.getAvatarUrl());
+            String avatarKey = fileService.getObjectName(request.getAvatarUrl());
+            if (!avatarKey.startsWith(StorageConstants.AVATAR_DIR + "/")) {
+                Asserts.fail("头像地址无效");
+            }
+            user.setAvatarKey(avatarKey);
         }
 
         // 5. 更新密码
@@ -155,6 +175,9 @@ public class UserServiceImpl implements UserService {
         if (userRepository.update(user) <= 0) {
             Asserts.fail("用户信息更新失败");
         }
+        pageCountCache.invalidate(PageCountCache.USER);
+        // 评论中包含用户信息
+        etagRegistry.bump(EtagRegistry.COMMENT);
 
         return convertToVO(user);
     }
@@ -167,15 +190,17 @@ public class UserServiceImpl implements UserService {
             Asserts.fail(ResultCode.USER_NOT_FOUND);
         }
         userRepository.deleteById(id);
+        pageCountCache.invalidate(PageCountCache.USER);
+        etagRegistry.bump(EtagRegistry.COMMENT);
     }
 
     @Override
     public PageInfo<UserResponse> getList(int pageNum, int pageSize, String keyword) {
-        PageHelper.startPage(pageNum, pageSize);
-        List<User> users = userRepository.selectList(keyword);
-        return new PageInfo<>(users.stream()
-                .map(this::convertToVO)
-                .collect(Collectors.toList()));
+        return pageCountCache.<User, UserResponse>selectPage(PageCountCache.USER, pageNum, pageSize, keyword,
+                () -> userRepository.selectList(keyword),
+                users -> users.stream()
+                        .map(this::convertToVO)
+                        .collect(Collectors.toList()));
     }
 
     @Override
@@ -189,7 +214,7 @@ public class UserServiceImpl implements UserService {
                 .id(user.getId())
                 .username(user.getUsername())
                 .email(user.getEmail())
-                .avatarUrl(user.getAvatarUrl())
+                .avatarUrl(fileService.getUrl(user.getAvatarKey()))
                 .role(user.getRole().name())
                 .createTime(user.getCreateTime())
                 .updateTime(user.getUpdateTime())
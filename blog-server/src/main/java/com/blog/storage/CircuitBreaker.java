@@ -0,0 +1,126 @@
+package com.blog.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 基于最近N次调用失败率的熔断器
+ * 失败率达到阈值后熔断一段时间，期间直接拒绝调用；到期后只放行一次探测，成功则恢复，失败则继续熔断
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * 熔断期间拒绝调用时抛出
+     */
+    public static class OpenException extends RuntimeException {
+        public OpenException(String name) {
+            super(name + " circuit breaker is open", null, false, false);
+        }
+    }
+
+    private final String name;
+    private final int minCalls;
+    private final double failureRate;
+    private final long openMs;
+
+    /** 最近调用结果的环形窗口，true为失败 */
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCalls;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probing;
+
+    public CircuitBreaker(String name, int windowSize, int minCalls, double failureRate, long openMs) {
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.minCalls = minCalls;
+        this.failureRate = failureRate;
+        this.openMs = openMs;
+    }
+
+    /**
+     * 申请调用许可
+     * @return 是否允许调用，允许时调用结束后必须调用onSuccess或onFailure
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMs) {
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN && !probing) {
+            probing = true;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            probing = false;
+            resetWindow();
+            transition(State.CLOSED);
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            probing = false;
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && windowCalls >= minCalls
+                && (double) windowFailures / windowCalls >= failureRate) {
+            open();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (windowCalls == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCalls++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void open() {
+        openedAt = System.currentTimeMillis();
+        resetWindow();
+        transition(State.OPEN);
+    }
+
+    private void resetWindow() {
+        windowIndex = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+    }
+
+    private void transition(State next) {
+        if (state != next) {
+            log.warn("Circuit breaker {} {} -> {}", name, state, next);
+            state = next;
+        }
+    }
+}
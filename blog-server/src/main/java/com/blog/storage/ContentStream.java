@@ -0,0 +1,24 @@
+package com.blog.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 可按范围流式写出的对象内容，写出时不在内存中保留完整内容
+ */
+public interface ContentStream extends Closeable {
+
+    /**
+     * @return 内容总字节数
+     */
+    long length();
+
+    /**
+     * 将指定范围的内容写入输出流
+     * @param offset 起始位置
+     * @param count 字节数
+     * @param output 输出流
+     */
+    void writeTo(long offset, long count, OutputStream output) throws IOException;
+}
@@ -0,0 +1,217 @@
+package com.blog.storage;
+
+import com.blog.cache.RedisLock;
+import com.blog.config.ContentSweepConfig;
+import com.blog.config.MinioConfig;
+import com.blog.constant.StorageConstants;
+import com.blog.model.Article;
+import com.blog.repository.ArticleRepository;
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文章内容清理
+ * 文章内容按摘要命名后，修改内容会留下旧对象；定期找出不再被任何文章（含已删除文章）引用的内容
+ * 及其预压缩、渲染结果并分批删除。宽限期内写入或被复用的对象不删除，避免误删尚未提交的引用
+ */
+@Slf4j
+@Component
+public class ContentSweeper {
+
+    private static final String SWEEP_LOCK_KEY = "content:sweep:lock";
+    private static final int SCAN_BATCH_SIZE = 5000;
+    private static final int LIST_PAGE_SIZE = 1000;
+    private static final String[] DERIVED_SUFFIXES = {StorageConstants.GZIP_SUFFIX, StorageConstants.RENDER_SUFFIX};
+
+    private final MinioClient minioClient;
+    private final MinioConfig minioConfig;
+    private final ArticleRepository articleRepository;
+    private final RedisLock redisLock;
+    private final ContentSweepConfig contentSweepConfig;
+    private final ObjectStoreResilience objectStoreResilience;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "content-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ContentSweeper(MinioClient minioClient,
+                          MinioConfig minioConfig,
+                          ArticleRepository articleRepository,
+                          RedisLock redisLock,
+                          ContentSweepConfig contentSweepConfig,
+                          ObjectStoreResilience objectStoreResilience) {
+        this.minioClient = minioClient;
+        this.minioConfig = minioConfig;
+        this.articleRepository = articleRepository;
+        this.redisLock = redisLock;
+        this.contentSweepConfig = contentSweepConfig;
+        this.objectStoreResilience = objectStoreResilience;
+    }
+
+    /**
+     * 定期清理，多节点间通过锁保证每个周期只执行一次
+     */
+    @Scheduled(initialDelayString = "#{@contentSweepConfig.intervalMs}",
+            fixedDelayString = "#{@contentSweepConfig.intervalMs}")
+    public void scheduledSweep() {
+        if (!contentSweepConfig.isEnabled()) {
+            return;
+        }
+        executor.submit(() -> {
+            try {
+                // 锁保持整个周期，调度相位不同的节点不会在同一周期内重复清理
+                if (redisLock.tryAcquireForInterval(SWEEP_LOCK_KEY, contentSweepConfig.getIntervalMs())) {
+                    sweep();
+                }
+            } catch (Exception e) {
+                log.error("Error sweeping unreferenced article content", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private void sweep() throws Exception {
+        long startTime = System.currentTimeMillis();
+        // 加载引用之后才提交的文章，其内容对象必然在宽限期内写入或刷新过，不会被删除
+        ZonedDateTime cutoff = ZonedDateTime.now().minusMinutes(contentSweepConfig.getGraceMinutes());
+        Set<String> referenced = loadReferencedObjects();
+
+        List<DeleteObject> batch = new ArrayList<>();
+        // 宽限期内写入或刷新的原始内容，复用时只刷新原始内容，其预压缩和渲染结果同样保留
+        Set<String> freshBases = new HashSet<>();
+        int deleted = 0;
+        String startAfter = null;
+        List<Item> page;
+        // 按对象名顺序列出，原始内容总在以其为前缀的衍生对象之前
+        do {
+            page = listPage(startAfter);
+            for (Item item : page) {
+                startAfter = item.objectName();
+                if (item.isDir()) {
+                    continue;
+                }
+                String base = baseObjectName(item.objectName());
+                if (item.lastModified().isAfter(cutoff)) {
+                    if (base.equals(item.objectName())) {
+                        freshBases.add(base);
+                    }
+                    continue;
+                }
+                if (referenced.contains(base) || freshBases.contains(base)) {
+                    continue;
+                }
+                batch.add(new DeleteObject(item.objectName()));
+                if (batch.size() >= contentSweepConfig.getBatchSize()) {
+                    deleted += remove(batch);
+                    batch.clear();
+                }
+            }
+        } while (page.size() == LIST_PAGE_SIZE);
+        if (!batch.isEmpty()) {
+            deleted += remove(batch);
+        }
+        log.info("Swept {} unreferenced content objects against {} references in {} ms",
+                deleted, referenced.size(), System.currentTimeMillis() - startTime);
+    }
+
+    private Set<String> loadReferencedObjects() {
+        Set<String> referenced = new HashSet<>();
+        long afterId = 0;
+        List<Article> articles;
+        do {
+            articles = articleRepository.selectContentKeysAfter(afterId, SCAN_BATCH_SIZE);
+            for (Article article : articles) {
+                if (article.getContentKey() != null) {
+                    referenced.add(article.getContentKey());
+                }
+                afterId = article.getId();
+            }
+        } while (articles.size() == SCAN_BATCH_SIZE);
+        return referenced;
+    }
+
+    /**
+     * 列出startAfter之后的一页内容对象
+     * 列举结果是惰性的，只取一页，保证每次调用只发出一个列举请求，失败时按页重试
+     */
+    private List<Item> listPage(String startAfter) throws Exception {
+        ListObjectsArgs.Builder args = ListObjectsArgs.builder()
+                .bucket(minioConfig.getBucketName())
+                .prefix(StorageConstants.ARTICLE_CONTENT_DIR + "/")
+                .recursive(true)
+                .maxKeys(LIST_PAGE_SIZE);
+        if (startAfter != null) {
+            args.startAfter(startAfter);
+        }
+        return objectStoreResilience.call("listObjects", () -> {
+            List<Item> items = new ArrayList<>(LIST_PAGE_SIZE);
+            for (Result<Item> result : minioClient.listObjects(args.build())) {
+                items.add(result.get());
+                if (items.size() == LIST_PAGE_SIZE) {
+                    break;
+                }
+            }
+            return items;
+        });
+    }
+
+    /**
+     * 一次请求删除一批对象
+     * @return 删除成功的数量
+     */
+    private int remove(List<DeleteObject> objects) throws Exception {
+        List<DeleteObject> toDelete = new ArrayList<>(objects);
+        // 删除结果是惰性的，只有遍历时才真正发出请求，遍历需在调用内完成
+        List<DeleteError> errors = objectStoreResilience.call("removeObjects", () -> {
+            List<DeleteError> failed = new ArrayList<>();
+            for (Result<DeleteError> result : minioClient.removeObjects(RemoveObjectsArgs.builder()
+                    .bucket(minioConfig.getBucketName())
+                    .objects(toDelete)
+                    .build())) {
+                failed.add(result.get());
+            }
+            return failed;
+        });
+        for (DeleteError error : errors) {
+            log.warn("Failed to delete content object {}: {}", error.objectName(), error.message());
+        }
+        return objects.size() - errors.size();
+    }
+
+    /**
+     * 预压缩和渲染结果随原始内容一起保留或清理
+     */
+    private static String baseObjectName(String objectName) {
+        for (String suffix : DERIVED_SUFFIXES) {
+            if (objectName.endsWith(suffix)) {
+                return objectName.substring(0, objectName.length() - suffix.length());
+            }
+        }
+        return objectName;
+    }
+}
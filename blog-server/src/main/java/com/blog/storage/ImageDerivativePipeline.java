@@ -0,0 +1,305 @@
+package com.blog.storage;
+
+import com.blog.config.ImageDerivativeConfig;
+import com.blog.config.MinioConfig;
+import com.blog.constant.StorageConstants;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 图片衍生版本生成
+ * 图片上传后在独立线程池中生成各尺寸的缩略图（有WebP编码器时同时生成WebP）和模糊占位图，与原图放在同一目录；
+ * 生成结果记录在Redis中，查询URL时按记录返回合适尺寸，尚未生成或生成失败时返回原图
+ */
+@Slf4j
+@Component
+public class ImageDerivativePipeline {
+
+    private static final String VARIANTS_KEY_PREFIX = "image:variants:";
+    private static final String WEBP = "webp";
+
+    private final MinioClient minioClient;
+    private final MinioConfig minioConfig;
+    private final ObjectStoreResilience objectStoreResilience;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ImageDerivativeConfig config;
+    private final ExecutorService imageDerivativeExecutor;
+    private final MeterRegistry meterRegistry;
+
+    /** 运行环境是否提供WebP编码器（如webp-imageio插件），没有时只生成JPEG/PNG */
+    private final boolean webpSupported = ImageIO.getImageWritersByFormatName(WEBP).hasNext();
+
+    /**
+     * 原图对象名 -> 衍生版本记录（版本名 -> 对象名）
+     * 生成完成后不再变化，缓存到期后重新查询，以便看到其他节点生成的结果
+     */
+    private final LoadingCache<String, Map<String, String>> variants;
+
+    public ImageDerivativePipeline(MinioClient minioClient,
+                                   MinioConfig minioConfig,
+                                   ObjectStoreResilience objectStoreResilience,
+                                   StringRedisTemplate stringRedisTemplate,
+                                   ImageDerivativeConfig config,
+                                   ExecutorService imageDerivativeExecutor,
+                                   MeterRegistry meterRegistry) {
+        this.minioClient = minioClient;
+        this.minioConfig = minioConfig;
+        this.objectStoreResilience = objectStoreResilience;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.config = config;
+        this.imageDerivativeExecutor = imageDerivativeExecutor;
+        this.meterRegistry = meterRegistry;
+        this.variants = Caffeine.newBuilder()
+                .maximumSize(config.getVariantCacheMaxSize())
+                .expireAfterWrite(config.getVariantCacheSeconds(), TimeUnit.SECONDS)
+                .build(this::loadVariants);
+    }
+
+    /**
+     * 提交图片的衍生版本生成任务，立即返回
+     * 队列已满时跳过，该图片继续使用原图
+     * @param objectName 原图对象名
+     */
+    public void submit(String objectName) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        try {
+            imageDerivativeExecutor.execute(() -> generate(objectName));
+        } catch (RejectedExecutionException e) {
+            log.warn("Image derivative queue is full, skipping {}", objectName);
+            meterRegistry.counter("blog.image.derivative", "outcome", "rejected").increment();
+        }
+    }
+
+    /**
+     * 查找图片指定尺寸的衍生版本
+     * @param objectName 原图对象名
+     * @param variant 衍生版本
+     * @return 衍生版本的对象名，优先WebP；尚未生成时返回原图对象名
+     */
+    public String resolve(String objectName, ImageVariant variant) {
+        Map<String, String> generated;
+        try {
+            generated = variants.get(objectName);
+        } catch (Exception e) {
+            log.warn("Failed to load image variants of {}: {}", objectName, e.getMessage());
+            return objectName;
+        }
+        String webp = generated.get(variant.key() + "." + WEBP);
+        if (webp != null) {
+            return webp;
+        }
+        return generated.getOrDefault(variant.key(), objectName);
+    }
+
+    /**
+     * 删除图片的全部衍生版本，在删除原图时调用
+     * @param objectName 原图对象名
+     */
+    public void deleteDerivatives(String objectName) {
+        String key = VARIANTS_KEY_PREFIX + objectName;
+        Map<Object, Object> generated = stringRedisTemplate.opsForHash().entries(key);
+        for (Object derivative : generated.values()) {
+            if (objectName.equals(derivative)) {
+                continue;
+            }
+            try {
+                objectStoreResilience.call("removeObject", () -> {
+                    minioClient.removeObject(RemoveObjectArgs.builder()
+                            .bucket(minioConfig.getBucketName())
+                            .object((String) derivative)
+                            .build());
+                    return null;
+                });
+            } catch (Exception e) {
+                log.warn("Failed to delete image derivative {}: {}", derivative, e.getMessage());
+            }
+        }
+        stringRedisTemplate.delete(key);
+        variants.invalidate(objectName);
+    }
+
+    private Map<String, String> loadVariants(String objectName) {
+        Map<String, String> generated = new HashMap<>();
+        stringRedisTemplate.opsForHash().entries(VARIANTS_KEY_PREFIX + objectName)
+                .forEach((variant, derivative) -> generated.put((String) variant, (String) derivative));
+        return generated;
+    }
+
+    private void generate(String objectName) {
+        long startNanos = System.nanoTime();
+        String outcome = "success";
+        try {
+            BufferedImage source = decode(objectName, readObject(objectName));
+            if (source == null) {
+                outcome = "skipped";
+                return;
+            }
+            // JPEG不支持透明，带透明通道的图片输出PNG
+            boolean hasAlpha = source.getColorModel().hasAlpha();
+            String format = hasAlpha ? "png" : "jpg";
+            Map<String, String> generated = new HashMap<>();
+            for (ImageVariant variant : ImageVariant.values()) {
+                if (variant != ImageVariant.PLACEHOLDER && source.getWidth() <= variant.getWidth()) {
+                    // 原图不比该尺寸大，直接使用原图
+                    generated.put(variant.key(), objectName);
+                    continue;
+                }
+                BufferedImage scaled = scale(source, variant.getWidth(), hasAlpha);
+                String derivative = derivativeName(objectName, variant, format);
+                putObject(derivative, encode(scaled, format), hasAlpha ? "image/png" : "image/jpeg");
+                generated.put(variant.key(), derivative);
+                if (webpSupported && variant != ImageVariant.PLACEHOLDER) {
+                    String webpDerivative = derivativeName(objectName, variant, WEBP);
+                    putObject(webpDerivative, encode(scaled, WEBP), "image/webp");
+                    generated.put(variant.key() + "." + WEBP, webpDerivative);
+                }
+            }
+            stringRedisTemplate.opsForHash().putAll(VARIANTS_KEY_PREFIX + objectName, generated);
+            variants.put(objectName, generated);
+            log.debug("Generated {} derivatives of {}", generated.size(), objectName);
+        } catch (Exception e) {
+            outcome = "failure";
+            log.warn("Failed to generate image derivatives of {}: {}", objectName, e.getMessage(), e);
+        } finally {
+            meterRegistry.timer("blog.image.derivative", "outcome", outcome)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 解码图片，无法解码、动图或像素数超限时返回null
+     */
+    private BufferedImage decode(String objectName, byte[] data) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                log.debug("No image reader for {}", objectName);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input);
+                // 先读尺寸再解码，避免超大图片占满内存
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > config.getMaxPixels()) {
+                    log.info("Skipping derivatives of {}: {} pixels exceeds limit", objectName, pixels);
+                    return null;
+                }
+                // 缩放会丢失动画，动图保留原图
+                if ("gif".equalsIgnoreCase(reader.getFormatName()) && reader.getNumImages(true) > 1) {
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 按宽度等比缩放，每次最多缩小一半，避免一次大比例缩放产生锯齿
+     */
+    private static BufferedImage scale(BufferedImage source, int targetWidth, boolean hasAlpha) {
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        int type = hasAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private byte[] encode(BufferedImage image, String format) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(result)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if ("jpg".equals(format)) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(config.getJpegQuality());
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return result.toByteArray();
+    }
+
+    private byte[] readObject(String objectName) throws Exception {
+        return objectStoreResilience.call("getObject", () -> {
+            try (GetObjectResponse response = minioClient.getObject(GetObjectArgs.builder()
+                        .bucket(minioConfig.getBucketName())
+                        .object(objectName)
+                        .build());
+                 ByteArrayOutputStream result = new ByteArrayOutputStream()) {
+                byte[] buffer = new byte[8192];
+                int length;
+                while ((length = response.read(buffer)) != -1) {
+                    result.write(buffer, 0, length);
+                }
+                return result.toByteArray();
+            }
+        });
+    }
+
+    private void putObject(String objectName, byte[] data, String contentType) throws Exception {
+        objectStoreResilience.call("putObject", () -> minioClient.putObject(PutObjectArgs.builder()
+                .bucket(minioConfig.getBucketName())
+                .object(objectName)
+                .stream(new ByteArrayInputStream(data), data.length, -1)
+                .contentType(contentType)
+                // 衍生版本与原图一一对应且不会修改，允许客户端长期缓存
+                .headers(Collections.singletonMap("Cache-Control", "public, max-age=31536000, immutable"))
+                .build()));
+    }
+
+    private static String derivativeName(String objectName, ImageVariant variant, String format) {
+        return objectName + StorageConstants.IMAGE_VARIANT_MARKER + variant.key() + "." + format;
+    }
+}
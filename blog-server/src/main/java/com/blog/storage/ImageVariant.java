@@ -0,0 +1,28 @@
+package com.blog.storage;
+
+/**
+ * 图片衍生版本，按宽度等比缩放
+ */
+public enum ImageVariant {
+    SMALL(320),       // 列表卡片、评论头像
+    MEDIUM(768),      // 移动端正文
+    LARGE(1280),      // 桌面端正文
+    PLACEHOLDER(24);  // 加载前显示的模糊占位图
+
+    private final int width;
+
+    ImageVariant(int width) {
+        this.width = width;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * 对象名中使用的名称
+     */
+    public String key() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,99 @@
+package com.blog.storage;
+
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
+import io.minio.MinioAsyncClient;
+import io.minio.messages.ListPartsResult;
+import io.minio.messages.Part;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 分片上传客户端
+ * MinioClient只在putObject内部使用分片上传，这里公开创建、上传分片、列出分片、合并和中止，
+ * 使一次上传可以跨多个请求进行；同步版本的分片接口已废弃，统一调用异步版本并等待结果
+ */
+public class MultipartMinioClient extends MinioAsyncClient {
+
+    private static final int LIST_PARTS_PAGE_SIZE = 1000;
+
+    public MultipartMinioClient(MinioAsyncClient client) {
+        super(client);
+    }
+
+    /**
+     * 创建分片上传
+     * @return uploadId
+     */
+    public String createUpload(String bucket, String objectName, String contentType) throws Exception {
+        Multimap<String, String> headers = ImmutableMultimap.of("Content-Type", contentType);
+        return await(createMultipartUploadAsync(bucket, null, objectName, headers, null)).result().uploadId();
+    }
+
+    /**
+     * 上传一个分片，相同分片号重复上传时覆盖之前的内容
+     * @return 分片的ETag
+     */
+    public String uploadPart(String bucket, String objectName, String uploadId, int partNumber, byte[] data, int length)
+            throws Exception {
+        return await(uploadPartAsync(bucket, null, objectName, data, length, uploadId, partNumber, null, null)).etag();
+    }
+
+    /**
+     * 列出已上传的分片，按分片号升序
+     */
+    public List<Part> listUploadedParts(String bucket, String objectName, String uploadId) throws Exception {
+        List<Part> parts = new ArrayList<>();
+        Integer marker = null;
+        while (true) {
+            ListPartsResult result = await(listPartsAsync(bucket, null, objectName, LIST_PARTS_PAGE_SIZE,
+                    marker, uploadId, null, null)).result();
+            parts.addAll(result.partList());
+            if (!result.isTruncated()) {
+                return parts;
+            }
+            marker = result.nextPartNumberMarker();
+        }
+    }
+
+    /**
+     * 按分片号顺序合并分片
+     */
+    public void completeUpload(String bucket, String objectName, String uploadId, Part[] parts) throws Exception {
+        await(completeMultipartUploadAsync(bucket, null, objectName, uploadId, parts, null, null));
+    }
+
+    /**
+     * 中止上传并释放已上传的分片
+     */
+    public void abortUpload(String bucket, String objectName, String uploadId) throws Exception {
+        await(abortMultipartUploadAsync(bucket, null, objectName, uploadId, null, null));
+    }
+
+    /**
+     * 等待异步请求完成，抛出原始异常，调用方仍可按ErrorResponseException判断错误码
+     */
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause();
+            while ((cause instanceof ExecutionException || cause instanceof CompletionException)
+                    && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.blog.storage;
+
+import com.blog.cache.RedisLock;
+import com.blog.common.util.TransactionUtils;
+import com.blog.config.ObjectOutboxConfig;
+import com.blog.model.ObjectOutbox;
+import com.blog.repository.ObjectOutboxRepository;
+import com.blog.service.FileService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对象存储待办
+ * 上传在数据库事务之外进行，事务只提交元数据：上传前记录STAGED待办，引用对象的事务中删除该待办，
+ * 事务未提交时待办超时后删除孤儿对象；被替换的对象在同一事务中记录DELETE待办，提交后再删除。
+ * 数据库连接的占用时间因此与对象存储的延迟和重试无关
+ */
+@Slf4j
+@Component
+public class ObjectOutboxProcessor {
+
+    private static final String PROCESS_LOCK_KEY = "object:outbox:lock";
+
+    private final ObjectOutboxRepository objectOutboxRepository;
+    private final FileService fileService;
+    private final RedisLock redisLock;
+    private final ObjectOutboxConfig objectOutboxConfig;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "object-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ObjectOutboxProcessor(ObjectOutboxRepository objectOutboxRepository,
+                                 FileService fileService,
+                                 RedisLock redisLock,
+                                 ObjectOutboxConfig objectOutboxConfig) {
+        this.objectOutboxRepository = objectOutboxRepository;
+        this.fileService = fileService;
+        this.redisLock = redisLock;
+        this.objectOutboxConfig = objectOutboxConfig;
+    }
+
+    /**
+     * 上传前记录待提交的对象，须在事务之外调用，保证记录先于上传落库
+     * @param objectName 对象名称
+     * @return 待办ID，引用对象的事务中传给commitStaged
+     */
+    public Long stage(String objectName) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Objects must be staged outside of a transaction");
+        }
+        ObjectOutbox outbox = ObjectOutbox.builder()
+                .objectName(objectName)
+                .action(ObjectOutbox.STAGED)
+                .build();
+        objectOutboxRepository.insert(outbox);
+        return outbox.getId();
+    }
+
+    /**
+     * 在引用对象的事务中调用，随事务提交确认对象
+     * @param id stage返回的待办ID
+     */
+    public void commitStaged(Long id) {
+        objectOutboxRepository.deleteById(id);
+    }
+
+    /**
+     * 在事务中记录被替换的对象，事务提交后删除
+     * @param objectName 对象名称
+     */
+    public void deleteAfterCommit(String objectName) {
+        objectOutboxRepository.insert(ObjectOutbox.builder()
+                .objectName(objectName)
+                .action(ObjectOutbox.DELETE)
+                .build());
+        // 提交后尽快处理，定时任务兜底
+        TransactionUtils.afterCommit(() -> executor.submit(this::processSafely));
+    }
+
+    /**
+     * 定期处理待办，多节点间通过锁避免重复删除
+     */
+    @Scheduled(fixedDelayString = "#{@objectOutboxConfig.intervalMs}")
+    public void scheduledProcess() {
+        executor.submit(this::processSafely);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private void processSafely() {
+        try {
+            String token = redisLock.tryLock(PROCESS_LOCK_KEY, Duration.ofMillis(objectOutboxConfig.getIntervalMs()));
+            if (token == null) {
+                return;
+            }
+            try {
+                process(ObjectOutbox.DELETE, 0);
+                process(ObjectOutbox.STAGED, objectOutboxConfig.getStagedTimeoutMinutes());
+            } finally {
+                // 处理时间超过锁的有效期时锁可能已被其他节点取得，只释放自己持有的锁
+                redisLock.unlock(PROCESS_LOCK_KEY, token);
+            }
+        } catch (Exception e) {
+            log.error("Error processing object outbox", e);
+        }
+    }
+
+    /**
+     * 删除到期待办对应的对象，删除失败的保留到下次重试
+     */
+    private void process(String action, long minutes) {
+        List<ObjectOutbox> due;
+        do {
+            due = objectOutboxRepository.selectDue(action, minutes, objectOutboxConfig.getBatchSize());
+            List<Long> done = new ArrayList<>(due.size());
+            for (ObjectOutbox outbox : due) {
+                try {
+                    fileService.deleteFile(outbox.getObjectName());
+                    done.add(outbox.getId());
+                } catch (Exception e) {
+                    log.warn("Failed to delete {} object {}: {}", action, outbox.getObjectName(), e.getMessage());
+                }
+            }
+            if (!done.isEmpty()) {
+                objectOutboxRepository.deleteByIds(done);
+                log.info("Deleted {} {} objects from outbox", done.size(), action);
+            }
+            if (done.size() < due.size()) {
+                return;
+            }
+        } while (due.size() == objectOutboxConfig.getBatchSize());
+    }
+}
@@ -0,0 +1,269 @@
+package com.blog.storage;
+
+import com.blog.config.MinioConfig;
+import com.blog.config.ObjectStoreResilienceConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.minio.errors.ErrorResponseException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * 对象存储调用的容错层
+ * 调用在独立线程池中执行，失败后按带随机抖动的指数退避在调度线程上重试，不占用等待中的线程；
+ * 最近调用失败率过高时熔断，MinIO不可用期间请求立即失败而不是排队等待；
+ * 内容读取可在首个请求慢于历史分位数时发出第二个相同请求，取先返回的结果；
+ * 调用方超时放弃或对冲落败后才返回的结果（如对象流）在这里关闭，不会泄漏连接
+ */
+@Slf4j
+@Component
+public class ObjectStoreResilience {
+
+    /** 服务端暂时性错误，可以重试且计入熔断；其余错误响应（如对象不存在）说明服务正常 */
+    private static final Set<String> RETRYABLE_ERROR_CODES = new HashSet<>(Arrays.asList(
+            "InternalError", "SlowDown", "ServiceUnavailable", "RequestTimeout", "XMinioServerNotInitialized"));
+
+    private final ObjectStoreResilienceConfig config;
+    private final MinioConfig minioConfig;
+    private final ExecutorService objectStoreExecutor;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreaker circuitBreaker;
+
+    private final Map<String, Timer> successTimers = new ConcurrentHashMap<>();
+    private final Counter rejectedCounter;
+    private final Counter hedgeIssuedCounter;
+    private final Counter hedgeWonCounter;
+
+    /** 只负责定时触发重试和对冲，不执行调用；不注册为Bean，避免被当作@Scheduled的调度器 */
+    private final ScheduledExecutorService objectStoreScheduler = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "object-store-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public ObjectStoreResilience(ObjectStoreResilienceConfig config,
+                                 MinioConfig minioConfig,
+                                 ExecutorService objectStoreExecutor,
+                                 MeterRegistry meterRegistry) {
+        this.config = config;
+        this.minioConfig = minioConfig;
+        this.objectStoreExecutor = objectStoreExecutor;
+        this.meterRegistry = meterRegistry;
+        this.circuitBreaker = new CircuitBreaker("minio", config.getBreakerWindowSize(),
+                config.getBreakerMinCalls(), config.getBreakerFailureRate(), config.getBreakerOpenMs());
+        this.rejectedCounter = meterRegistry.counter("blog.minio.breaker.rejected");
+        this.hedgeIssuedCounter = meterRegistry.counter("blog.minio.hedge", "outcome", "issued");
+        this.hedgeWonCounter = meterRegistry.counter("blog.minio.hedge", "outcome", "won");
+        meterRegistry.gauge("blog.minio.breaker.state", circuitBreaker, breaker -> breaker.getState().ordinal());
+    }
+
+    /**
+     * 异步执行调用，可重试的失败按退避重试
+     * @param operation 操作名，用于指标
+     * @param call 调用，每次重试重新执行，需自行重建请求体等一次性资源
+     * @return 调用结果
+     */
+    public <T> CompletableFuture<T> submit(String operation, Callable<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(operation, call, 1, result);
+        return result;
+    }
+
+    /**
+     * 执行调用并等待结果，等待时间不超过总超时
+     * @param operation 操作名，用于指标
+     * @param call 调用
+     * @return 调用结果
+     * @throws Exception 最后一次调用的异常、熔断或超时
+     */
+    public <T> T call(String operation, Callable<T> call) throws Exception {
+        return await(operation, submit(operation, call));
+    }
+
+    /**
+     * 执行读取，首个请求超过耗时分位数仍未返回时再发出一个相同请求，取先成功的结果
+     * 调用必须是幂等的读取
+     * @param operation 操作名，用于指标和耗时统计
+     * @param call 调用
+     * @return 调用结果
+     * @throws Exception 所有请求都失败时为最后一个异常
+     */
+    public <T> T hedgedCall(String operation, Callable<T> call) throws Exception {
+        if (!config.isHedgeEnabled()) {
+            return call(operation, call);
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger inFlight = new AtomicInteger(1);
+        Queue<CompletableFuture<T>> attempts = new ConcurrentLinkedQueue<>();
+        CompletableFuture<T> first = submit(operation, call);
+        attempts.add(first);
+        first.whenComplete(hedgeHandler(result, inFlight, false));
+        ScheduledFuture<?> hedge = objectStoreScheduler.schedule(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            inFlight.incrementAndGet();
+            hedgeIssuedCounter.increment();
+            CompletableFuture<T> second = submit(operation, call);
+            attempts.add(second);
+            second.whenComplete(hedgeHandler(result, inFlight, true));
+            if (result.isDone()) {
+                second.cancel(false);
+            }
+        }, hedgeDelayMs(operation), TimeUnit.MILLISECONDS);
+        // 有结果或调用方超时后取消其余请求，尚未开始的重试不再执行
+        result.whenComplete((value, error) -> {
+            hedge.cancel(false);
+            attempts.forEach(attempt -> attempt.cancel(false));
+        });
+        return await(operation, result);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        objectStoreScheduler.shutdownNow();
+    }
+
+    private <T> BiConsumer<T, Throwable> hedgeHandler(CompletableFuture<T> result, AtomicInteger inFlight,
+                                                        boolean isHedge) {
+        return (value, error) -> {
+            if (error == null) {
+                if (!result.complete(value)) {
+                    closeQuietly(value);
+                } else if (isHedge) {
+                    hedgeWonCounter.increment();
+                }
+            } else if (inFlight.decrementAndGet() == 0) {
+                result.completeExceptionally(error);
+            }
+        };
+    }
+
+    private <T> void attempt(String operation, Callable<T> call, int attempt, CompletableFuture<T> result) {
+        if (result.isDone()) {
+            // 调用方已超时放弃
+            return;
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            rejectedCounter.increment();
+            result.completeExceptionally(new CircuitBreaker.OpenException("minio"));
+            return;
+        }
+        try {
+            objectStoreExecutor.execute(() -> {
+                long startNanos = System.nanoTime();
+                try {
+                    T value = call.call();
+                    circuitBreaker.onSuccess();
+                    successTimer(operation).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                    if (!result.complete(value)) {
+                        // 调用方已放弃，结果无人使用
+                        closeQuietly(value);
+                    }
+                } catch (Exception e) {
+                    boolean retryable = isRetryable(e);
+                    if (retryable) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        circuitBreaker.onSuccess();
+                    }
+                    meterRegistry.timer("blog.minio.call", "operation", operation, "outcome", "failure")
+                            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                    if (!retryable || attempt >= minioConfig.getMaxRetries()) {
+                        result.completeExceptionally(e);
+                        return;
+                    }
+                    long delay = backoffMs(attempt);
+                    log.warn("Retry {} of MinIO {} in {}ms: {}", attempt, operation, delay, e.getMessage());
+                    meterRegistry.counter("blog.minio.retry", "operation", operation).increment();
+                    objectStoreScheduler.schedule(() -> attempt(operation, call, attempt + 1, result),
+                            delay, TimeUnit.MILLISECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 线程池已满说明MinIO已经变慢，计入熔断
+            circuitBreaker.onFailure();
+            meterRegistry.counter("blog.minio.saturated", "operation", operation).increment();
+            result.completeExceptionally(e);
+        }
+    }
+
+    private <T> T await(String operation, CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get(timeoutMs(operation), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 取消后尚未开始的重试不再执行；取消前恰好完成的结果无人使用，关闭
+            if (!future.cancel(false)) {
+                future.thenAccept(ObjectStoreResilience::closeQuietly);
+            }
+            meterRegistry.counter("blog.minio.timeout", "operation", operation).increment();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    private long timeoutMs(String operation) {
+        return config.getOperationTimeoutMs().getOrDefault(operation, config.getCallTimeoutMs());
+    }
+
+    /**
+     * 全抖动指数退避：在0到min(上限, 基数*2^(n-1))之间随机
+     */
+    private long backoffMs(int attempt) {
+        long cap = Math.min(config.getMaxBackoffMs(), config.getBaseBackoffMs() << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private long hedgeDelayMs(String operation) {
+        ValueAtPercentile[] percentiles = successTimer(operation).takeSnapshot().percentileValues();
+        double delay = percentiles.length > 0 ? percentiles[0].value(TimeUnit.MILLISECONDS) : 0;
+        return Math.max(config.getHedgeMinDelayMs(), (long) delay);
+    }
+
+    private Timer successTimer(String operation) {
+        return successTimers.computeIfAbsent(operation, key -> Timer.builder("blog.minio.call")
+                .tag("operation", key)
+                .tag("outcome", "success")
+                .publishPercentiles(config.getHedgePercentile())
+                .register(meterRegistry));
+    }
+
+    private static void closeQuietly(Object value) {
+        if (value instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) value).close();
+            } catch (Exception e) {
+                log.debug("Failed to close abandoned result: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 只重试网络错误和服务端暂时性错误，编程错误和请求本身的问题重试也不会成功
+     */
+    private static boolean isRetryable(Exception e) {
+        if (e instanceof ErrorResponseException) {
+            return RETRYABLE_ERROR_CODES.contains(((ErrorResponseException) e).errorResponse().code());
+        }
+        return e instanceof IOException;
+    }
+}